@@ -0,0 +1,5 @@
+#!/usr/bin/env bash
+# Runs the unit tests plus the tests that need the configured Postgres (-Dplm.integration=true)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+mvn -B test -Dplm.integration=true "$@"
@@ -2,11 +2,18 @@ package com.retailflow.plm;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class PlmApplication {
 
+    // Enough buffered steps to cover every bean instantiation during startup
+    private static final int STARTUP_STEP_CAPACITY = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(PlmApplication.class, args);
+        SpringApplication application = new SpringApplication(PlmApplication.class);
+        // Records startup phases and per-bean init durations for the /actuator/startup endpoint
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 }
@@ -1,7 +1,10 @@
 package com.retailflow.plm.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -9,8 +12,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  * Configuration class for application-wide beans.
  * This class is detected by Spring during component scanning and used
  * to define and provide reusable bean definitions.
+ * It also enables {@code @Scheduled} background tasks such as the catalog snapshot builder.
  */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     /**
@@ -21,10 +26,21 @@ public class AppConfig {
      * user passwords securely. BCrypt provides strong hashing with built-in salt.
      * </p>
      *
-     * @return a BCryptPasswordEncoder instance
+     * <p>
+     * Hashing runs on a bounded executor (see {@link BoundedPasswordEncoder}) so that logins and
+     * registrations cannot occupy all request threads. The BCrypt strength (log2 rounds) is configurable;
+     * existing hashes keep verifying with the strength they were created with.
+     * </p>
+     *
+     * @return a BCrypt encoder running on the bounded hashing executor
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${plm.password-hashing.strength:10}") int strength,
+                                           @Value("${plm.password-hashing.threads:0}") int threads,
+                                           @Value("${plm.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${plm.password-hashing.timeout-ms:5000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, timeoutMs, meterRegistry);
     }
 }
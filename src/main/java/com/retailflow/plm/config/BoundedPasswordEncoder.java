@@ -0,0 +1,127 @@
+package com.retailflow.plm.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link PasswordEncoder} that runs every encode/match of the delegate (BCrypt) on a small,
+ * bounded executor instead of directly on the calling request thread.
+ *
+ * <p>At most {@code threads} hashes run at once and at most {@code queueCapacity} wait; further
+ * requests are rejected immediately with {@link PasswordHashingRejectedException} (answered as
+ * 503 by the login/registration endpoints and HTTP Basic). A login storm therefore costs a bounded
+ * amount of CPU and fails fast, instead of tying up every Tomcat worker in BCrypt and starving
+ * product reads.</p>
+ *
+ * <p>Metrics: {@code plm.password.hashing.queue} (waiting tasks), {@code plm.password.hashing.active},
+ * {@code plm.password.hash} (time spent hashing, by operation), {@code plm.password.hashing.latency}
+ * (caller-observed time including queueing) and {@code plm.password.hashing.rejected}.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutMs = timeoutMs;
+        this.meterRegistry = meterRegistry;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("plm.password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("plm.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("plm.password.hashing.rejected")
+                .description("Password hashing requests rejected because the executor was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword); // Only parses the hash prefix, no hashing
+    }
+
+    /**
+     * Stops the hashing threads; called by Spring on context shutdown (inferred destroy method).
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(String operation, Callable<T> work) {
+        Timer.Sample latency = Timer.start(meterRegistry);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                Timer.Sample hashing = Timer.start(meterRegistry);
+                try {
+                    return work.call();
+                } finally {
+                    hashing.stop(Timer.builder("plm.password.hash")
+                            .description("Time spent computing password hashes")
+                            .tag("operation", operation)
+                            .register(meterRegistry));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing is saturated, try again later");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out after " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException; // e.g. IllegalArgumentException for a null password
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } finally {
+            latency.stop(Timer.builder("plm.password.hashing.latency")
+                    .description("Caller-observed password hashing time, including queueing")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -14,7 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.config.Customizer;
 
 /**
  * Security configuration for the 'dev' profile.
@@ -54,7 +53,7 @@ public class DevSecurityConfiguration {
                 .requestMatchers("/api/auth/users/me").authenticated() // Auth required for user info
                 .anyRequest().permitAll() // All other endpoints are open for dev convenience
             )
-            .httpBasic(Customizer.withDefaults()); // Enable HTTP Basic authentication for simplicity
+            .httpBasic(basic -> basic.authenticationEntryPoint(new PasswordHashingAwareEntryPoint())); // Enable HTTP Basic authentication for simplicity
 
         return http.build();
     }
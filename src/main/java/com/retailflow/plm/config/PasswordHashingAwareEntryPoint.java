@@ -0,0 +1,36 @@
+package com.retailflow.plm.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+import java.io.IOException;
+
+/**
+ * HTTP Basic entry point that answers 503 with {@code Retry-After} when credentials could not be
+ * checked because password hashing is saturated, and the usual 401 challenge otherwise.
+ */
+public class PasswordHashingAwareEntryPoint implements AuthenticationEntryPoint {
+
+    private final BasicAuthenticationEntryPoint basicEntryPoint = new BasicAuthenticationEntryPoint();
+
+    public PasswordHashingAwareEntryPoint() {
+        basicEntryPoint.setRealmName("Realm"); // Same realm as the default HTTP Basic configuration
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+        if (authException instanceof PasswordHashingRejectedException) {
+            // setStatus rather than sendError: the /error dispatch would itself require authentication
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        basicEntryPoint.commence(request, response, authException);
+    }
+}
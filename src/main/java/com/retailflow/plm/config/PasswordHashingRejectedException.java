@@ -0,0 +1,18 @@
+package com.retailflow.plm.config;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Thrown by {@link BoundedPasswordEncoder} when a password cannot be hashed because the hashing
+ * executor is saturated or the wait timed out.
+ *
+ * <p>Extends {@link InternalAuthenticationServiceException} so the authentication manager
+ * propagates it as-is (instead of trying further providers), letting callers answer with
+ * 503 Service Unavailable rather than 401.</p>
+ */
+public class PasswordHashingRejectedException extends InternalAuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
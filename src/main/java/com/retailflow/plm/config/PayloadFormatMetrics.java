@@ -0,0 +1,127 @@
+package com.retailflow.plm.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialized size and serialization CPU time of every response body,
+ * tagged by payload format (json, cbor, smile).
+ *
+ * <p>The numbers are published as {@code plm.payload.bytes} and {@code plm.payload.serialization}
+ * through the actuator metrics endpoint. Sizes are measured before response compression is
+ * applied. JSON product bodies are mostly copied from the {@link ProductResponseCache} while
+ * CBOR and Smile are encoded on every request, so the timings show what each format costs in
+ * production but do not compare the encoders; {@code PayloadFormatBenchmarkTest} does that.</p>
+ */
+@Component
+public class PayloadFormatMetrics {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Runs the given writer against a byte-counting view of the output message and records
+     * the bytes written and the CPU time spent on the calling thread.
+     *
+     * @param format        the payload format tag (e.g. "json", "cbor", "smile")
+     * @param outputMessage the original output message
+     * @param writer        the serialization step to measure
+     * @throws IOException if the writer fails
+     */
+    public void measure(String format, HttpOutputMessage outputMessage, PayloadWriter writer) throws IOException {
+        CountingOutputMessage countingMessage = new CountingOutputMessage(outputMessage);
+        long start = currentThreadTime();
+        writer.write(countingMessage);
+        long elapsed = currentThreadTime() - start;
+
+        Timer.builder("plm.payload.serialization")
+                .description("CPU time spent serializing response bodies")
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("plm.payload.bytes")
+                .description("Serialized response body size before compression")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(countingMessage.getByteCount());
+    }
+
+    // Falls back to wall-clock time on JVMs without per-thread CPU accounting
+    private static long currentThreadTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+                ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+                : System.nanoTime();
+    }
+
+    /**
+     * A serialization step that writes to an {@link HttpOutputMessage}.
+     */
+    @FunctionalInterface
+    public interface PayloadWriter {
+        void write(HttpOutputMessage outputMessage) throws IOException;
+    }
+
+    /**
+     * Output message wrapper that counts the bytes written to the body.
+     */
+    private static class CountingOutputMessage implements HttpOutputMessage {
+        private final HttpOutputMessage delegate;
+        private CountingOutputStream body;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingOutputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        long getByteCount() {
+            return body != null ? body.count : 0;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.retailflow.plm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailflow.plm.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the serialized JSON of individual products, keyed by ID and {@code updatedAt}.
+ *
+ * <p>Used by the JSON message converter (see {@link WebConfig}): a {@link Product} body is written
+ * from its cached bytes, and a list of products is assembled from the cached fragment of each
+ * element, so Jackson only runs for products that are not cached yet. Every write to a product
+ * changes its {@code updatedAt}, so an entry whose version does not match is simply re-serialized
+ * and replaced; no explicit invalidation is needed.</p>
+ *
+ * <p>The cache holds at most {@code plm.response-cache.max-bytes} of serialized data and evicts
+ * the least recently used products beyond that. Hits, misses and evictions are published as
+ * {@code plm.response-cache.*} metrics.</p>
+ */
+@Component
+public class ProductResponseCache {
+
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_SEPARATOR = {','};
+    private static final byte[] ARRAY_END = {']'};
+
+    // Approximate heap cost of one entry besides its bytes (map node, key, Fragment, array header)
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used product
+    private final LinkedHashMap<Long, Fragment> fragments = new LinkedHashMap<>(1024, 0.75f, true);
+    private long bytes;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = Counter.builder("plm.response-cache.hits")
+                .description("Products written from cached JSON")
+                .register(meterRegistry);
+        misses = Counter.builder("plm.response-cache.misses")
+                .description("Products serialized because no current JSON was cached")
+                .register(meterRegistry);
+        evictions = Counter.builder("plm.response-cache.evictions")
+                .description("Cached products dropped to stay within plm.response-cache.max-bytes")
+                .register(meterRegistry);
+        Gauge.builder("plm.response-cache.size", this, cache -> cache.bytes)
+                .description("Approximate heap used by the response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("plm.response-cache.entries", this, cache -> cache.fragments.size())
+                .description("Products held by the response cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes a product or a list of products from cached JSON fragments.
+     *
+     * @param body         the response body
+     * @param objectMapper the mapper used to serialize products that are not cached
+     * @param out          the response stream
+     * @return false if the body is not a product or a non-empty list of products, in which case
+     * nothing was written and the caller serializes it itself
+     * @throws IOException if writing to the response fails
+     */
+    public boolean write(Object body, ObjectMapper objectMapper, OutputStream out) throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        if (isCacheable(body)) {
+            out.write(fragment((Product) body, objectMapper));
+            return true;
+        }
+        if (!(body instanceof List<?> list) || list.isEmpty()) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!isCacheable(element)) {
+                return false;
+            }
+        }
+        out.write(ARRAY_START);
+        boolean first = true;
+        for (Object element : list) {
+            if (!first) {
+                out.write(ARRAY_SEPARATOR);
+            }
+            out.write(fragment((Product) element, objectMapper));
+            first = false;
+        }
+        out.write(ARRAY_END);
+        return true;
+    }
+
+    private byte[] fragment(Product product, ObjectMapper objectMapper) throws IOException {
+        LocalDateTime version = product.getUpdatedAt();
+        Fragment cached;
+        synchronized (fragments) {
+            cached = fragments.get(product.getId());
+        }
+        if (cached != null && cached.version().equals(version)) {
+            hits.increment();
+            return cached.json();
+        }
+        misses.increment();
+        byte[] json = objectMapper.writeValueAsBytes(product);
+        store(product.getId(), new Fragment(version, json));
+        return json;
+    }
+
+    private void store(Long id, Fragment fragment) {
+        int evicted = 0;
+        synchronized (fragments) {
+            Fragment previous = fragments.get(id);
+            if (previous != null && previous.version().isAfter(fragment.version())) {
+                return; // A concurrent request already cached a newer version
+            }
+            Fragment replaced = fragments.put(id, fragment);
+            bytes += cost(fragment) - (replaced == null ? 0 : cost(replaced));
+            Iterator<Fragment> eldest = fragments.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= cost(eldest.next());
+                eldest.remove();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            evictions.increment(evicted);
+        }
+    }
+
+    // Only plain products with a version are cached; Hibernate proxies and unsaved products are not
+    private static boolean isCacheable(Object value) {
+        return value != null && value.getClass() == Product.class
+                && ((Product) value).getId() != null && ((Product) value).getUpdatedAt() != null;
+    }
+
+    private static long cost(Fragment fragment) {
+        return fragment.json().length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Serialized JSON of one product version.
+     */
+    private record Fragment(LocalDateTime version, byte[] json) {
+    }
+}
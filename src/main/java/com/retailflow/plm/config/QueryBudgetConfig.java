@@ -0,0 +1,63 @@
+package com.retailflow.plm.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the per-request query accounting used by {@link QueryBudgetFilter}:
+ * the JDBC-level statement/row counter and a Hibernate listener that counts entity loads.
+ */
+@Configuration
+public class QueryBudgetConfig {
+
+    /**
+     * Wraps the application DataSource in a {@link QueryCountingDataSource}.
+     * Declared static so it is registered before the DataSource bean is created.
+     */
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(
+            @Value("${plm.query-budget.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registers a Hibernate post-load listener so every entity materialized from a result set
+     * (including EAGER associations such as {@code User.roles}) is counted against the request.
+     */
+    @Bean
+    public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory,
+                                                        @Value("${plm.query-budget.enabled:true}") boolean enabled) {
+        return () -> {
+            if (!enabled) {
+                return;
+            }
+            EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+                RequestQueryStats stats = RequestQueryStats.current();
+                if (stats != null) {
+                    stats.recordEntityLoad();
+                }
+            });
+        };
+    }
+}
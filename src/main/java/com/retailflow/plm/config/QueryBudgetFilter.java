@@ -0,0 +1,152 @@
+package com.retailflow.plm.config;
+
+import com.retailflow.plm.service.WarmupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements, fetched rows and entity loads of every HTTP request and checks them
+ * against a budget.
+ *
+ * <ul>
+ *   <li>Per-route metrics: {@code plm.request.sql.statements}, {@code plm.request.sql.rows},
+ *       {@code plm.request.entity.loads} and {@code plm.request.query.budget.exceeded}.</li>
+ *   <li>A warning is logged when a request exceeds {@code max-statements} or {@code max-entity-loads},
+ *       or runs the same SQL {@code n-plus-one-threshold} times or more (a likely N+1).</li>
+ *   <li>With {@code expose-headers} enabled (dev), the counts are sent as {@code X-Query-*} headers,
+ *       captured just before the response is committed.</li>
+ * </ul>
+ *
+ * <p>Synthetic warm-up requests (see {@link WarmupService}) are not recorded.</p>
+ *
+ * <p>Runs ahead of the security filter chain so the user lookups of HTTP Basic authentication
+ * are counted as well.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ROWS_HEADER = "X-Query-Rows";
+    public static final String ENTITY_LOADS_HEADER = "X-Entity-Loads";
+    public static final String MAX_REPEATS_HEADER = "X-Query-Max-Repeats";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.query-budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.query-budget.expose-headers:false}")
+    private boolean exposeHeaders;
+
+    @Value("${plm.query-budget.max-statements:10}")
+    private int maxStatements;
+
+    @Value("${plm.query-budget.max-entity-loads:1000}")
+    private int maxEntityLoads;
+
+    @Value("${plm.query-budget.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        HttpServletResponse target = exposeHeaders ? new HeaderWritingResponse(response, stats) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            RequestQueryStats.end();
+            if (exposeHeaders && !response.isCommitted()) {
+                // Bodiless responses (e.g. 404) are only committed after the filter chain returns
+                writeHeaders(response, stats);
+            }
+            if (!WarmupService.inWarmupRequest()) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, RequestQueryStats stats) {
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+        response.setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+        response.setHeader(ENTITY_LOADS_HEADER, String.valueOf(stats.getEntityLoads()));
+        response.setHeader(MAX_REPEATS_HEADER, String.valueOf(stats.getMaxRepeats()));
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "UNMAPPED";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("plm.request.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", method).tag("route", route)
+                .register(meterRegistry).record(stats.getStatements());
+        DistributionSummary.builder("plm.request.sql.rows")
+                .description("Rows fetched per HTTP request")
+                .tag("method", method).tag("route", route)
+                .register(meterRegistry).record(stats.getRows());
+        DistributionSummary.builder("plm.request.entity.loads")
+                .description("Entities loaded per HTTP request")
+                .tag("method", method).tag("route", route)
+                .register(meterRegistry).record(stats.getEntityLoads());
+
+        boolean overBudget = stats.getStatements() > maxStatements || stats.getEntityLoads() > maxEntityLoads;
+        if (overBudget) {
+            Counter.builder("plm.request.query.budget.exceeded")
+                    .description("Requests that exceeded the SQL statement or entity load budget")
+                    .tag("method", method).tag("route", route)
+                    .register(meterRegistry).increment();
+            logger.warn("{} {} exceeded the query budget: {} statements (max {}), {} rows, {} entity loads (max {})",
+                    method, route, stats.getStatements(), maxStatements, stats.getRows(),
+                    stats.getEntityLoads(), maxEntityLoads);
+        }
+        if (stats.getMaxRepeats() >= nPlusOneThreshold) {
+            logger.warn("{} {} ran the same statement {} times (possible N+1): {}",
+                    method, route, stats.getMaxRepeats(), stats.getMostRepeatedStatement());
+        }
+    }
+
+    /**
+     * Adds the current counts as headers right before the response is committed,
+     * i.e. after the handler has done its work but while headers can still be set.
+     */
+    private static final class HeaderWritingResponse extends OnCommittedResponseWrapper {
+        private final RequestQueryStats stats;
+
+        HeaderWritingResponse(HttpServletResponse response, RequestQueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders((HttpServletResponse) getResponse(), stats);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.retailflow.plm.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that reports every executed statement and every fetched row to the
+ * {@link RequestQueryStats} of the calling thread.
+ *
+ * <p>Wrapping at the JDBC level means Hibernate, Spring Data and {@code JdbcTemplate} queries are
+ * all counted. When no request is being tracked the proxies only add a thread-local lookup.</p>
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Base handler: forwards calls to the target, with identity semantics for equals/hashCode
+     * (Hibernate keeps statements and result sets in hash-based registries).
+     */
+    private abstract static class DelegatingHandler implements InvocationHandler {
+        protected final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return afterInvoke(method, args, result);
+        }
+
+        protected abstract Object afterInvoke(Method method, Object[] args, Object result);
+    }
+
+    private static final class ConnectionHandler extends DelegatingHandler {
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        protected Object afterInvoke(Method method, Object[] args, Object result) {
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement, new StatementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, new StatementHandler(statement, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, new StatementHandler(statement, null));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends DelegatingHandler {
+        private final String preparedSql;
+
+        StatementHandler(Statement target, String preparedSql) {
+            super(target);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        protected Object afterInvoke(Method method, Object[] args, Object result) {
+            RequestQueryStats stats = RequestQueryStats.current();
+            if (stats != null && method.getName().startsWith("execute")) {
+                // Plain statements pass their SQL to execute*(sql); prepared ones were given it up front
+                String sql = preparedSql != null ? preparedSql
+                        : (args != null && args.length > 0 && args[0] instanceof String text ? text : null);
+                stats.recordStatement(sql);
+            }
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, resultSet, new ResultSetHandler(resultSet));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends DelegatingHandler {
+        ResultSetHandler(ResultSet target) {
+            super(target);
+        }
+
+        @Override
+        protected Object afterInvoke(Method method, Object[] args, Object result) {
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                RequestQueryStats stats = RequestQueryStats.current();
+                if (stats != null) {
+                    stats.recordRow();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.retailflow.plm.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-request database work counters: SQL statements executed, rows fetched and entities loaded.
+ *
+ * <p>The counters are bound to the request thread by {@link QueryBudgetFilter}; work done on
+ * other threads (schedulers, the group committer) is not attributed to any request. Statements are
+ * also counted by SQL text, which is how repeated identical queries (N+1 patterns) are detected.</p>
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private int entityLoads;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    private RequestQueryStats() {
+    }
+
+    /**
+     * Starts counting for the current thread, replacing any previous counters.
+     */
+    public static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stops counting for the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the counters of the current thread, or {@code null} if nothing is being counted
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    void recordEntityLoad() {
+        entityLoads++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    /**
+     * @return the highest number of times a single SQL text was executed in this request
+     */
+    public int getMaxRepeats() {
+        return executionsBySql.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    /**
+     * @return the SQL text executed most often in this request, or {@code null} if none ran
+     */
+    public String getMostRepeatedStatement() {
+        return executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+}
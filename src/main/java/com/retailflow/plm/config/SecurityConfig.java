@@ -13,7 +13,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.config.Customizer;
 
 /**
  * Security configuration for non-development environments (e.g., staging, production).
@@ -51,6 +50,7 @@ public class SecurityConfig {
      *   <li>Disables CSRF (suitable for stateless REST APIs)</li>
      *   <li>Allows public access to auth endpoints (e.g., login, register)</li>
      *   <li>Permits public access to product-related endpoints</li>
+     *   <li>Permits public access to the liveness and readiness probes</li>
      *   <li>Requires authentication for all other routes</li>
      *   <li>Enables HTTP Basic Authentication</li>
      *   <li>Sets session policy to stateless (no HTTP session stored)</li>
@@ -67,9 +67,10 @@ public class SecurityConfig {
             .authorizeHttpRequests(authorize -> {
                 authorize.requestMatchers("/api/auth/**").permitAll(); // Public auth endpoints
                 authorize.requestMatchers("/api/products/**").permitAll(); // Public product endpoints (temporary)
+                authorize.requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll(); // Load balancer probes
                 authorize.anyRequest().authenticated(); // All other routes require authentication
             })
-            .httpBasic(Customizer.withDefaults()); // Enable basic HTTP authentication
+            .httpBasic(basic -> basic.authenticationEntryPoint(new PasswordHashingAwareEntryPoint())); // Enable basic HTTP authentication (503 when hashing is saturated)
 
         // Enforce stateless session management (no server-side sessions)
         http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -0,0 +1,29 @@
+package com.retailflow.plm.config;
+
+import com.retailflow.plm.service.WarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator "warmup": OUT_OF_SERVICE until {@link WarmupService} has finished.
+ * Part of the readiness group, so load balancers only route traffic to warmed-up nodes;
+ * liveness is not affected.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupService.isComplete() ? Health.up() : Health.outOfService();
+        builder.withDetail("phase", warmupService.getPhase());
+        if (warmupService.getDuration() != null) {
+            builder.withDetail("durationMs", warmupService.getDuration().toMillis());
+        }
+        return builder.build();
+    }
+}
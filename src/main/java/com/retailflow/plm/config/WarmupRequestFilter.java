@@ -0,0 +1,77 @@
+package com.retailflow.plm.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.retailflow.plm.service.WarmupService;
+import io.micrometer.observation.ObservationPredicate;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Recognizes the synthetic requests {@link WarmupService} sends to this node and keeps them out
+ * of production telemetry: they are not recorded in {@code http.server.requests}, the query budget
+ * metrics or {@code plm.product.read}, and log events below WARN are dropped while they run.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Ahead of QueryBudgetFilter, which checks the mark
+public class WarmupRequestFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @PostConstruct
+    void suppressWarmupLogs() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.addTurboFilter(new TurboFilter() {
+                @Override
+                public FilterReply decide(Marker marker, ch.qos.logback.classic.Logger logger, Level level,
+                                          String format, Object[] params, Throwable t) {
+                    return level.isGreaterOrEqual(Level.WARN) || !WarmupService.inWarmupRequest()
+                            ? FilterReply.NEUTRAL : FilterReply.DENY;
+                }
+            });
+        }
+    }
+
+    /**
+     * Leaves warm-up requests out of the {@code http.server.requests} observations.
+     */
+    @Bean
+    ObservationPredicate warmupRequestObservationPredicate() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext request
+                && warmupService.isWarmupToken(request.getCarrier().getHeader(WarmupService.REQUEST_HEADER)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(WarmupService.REQUEST_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean warmup = warmupService.isWarmupToken(request.getHeader(WarmupService.REQUEST_HEADER));
+        WarmupService.setWarmupRequest(warmup);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            WarmupService.setWarmupRequest(false);
+        }
+    }
+}
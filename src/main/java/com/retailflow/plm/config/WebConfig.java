@@ -1,12 +1,26 @@
 package com.retailflow.plm.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
+
 @Configuration // Marks this class as a source of bean definitions for Spring
 public class WebConfig implements WebMvcConfigurer {
 
+    /** Media type used by Jackson's Smile binary JSON encoding. */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**") // Apply CORS to all API endpoints
@@ -16,4 +30,54 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true) // Allow credentials (e.g., cookies, HTTP authentication headers)
                 .maxAge(3600); // Max age of preflight request cache
     }
+
+    /**
+     * JSON converter built from Spring Boot's configured ObjectMapper, with payload size
+     * and serialization time recorded under the "json" format tag. Products and product lists
+     * are written from the {@link ProductResponseCache} instead of being serialized again.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, PayloadFormatMetrics metrics, ProductResponseCache responseCache) {
+        return new MappingJackson2HttpMessageConverter(builder.build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                metrics.measure("json", outputMessage, message -> {
+                    if (!responseCache.write(object, getObjectMapper(), message.getBody())) {
+                        super.writeInternal(object, type, message);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * CBOR converter, selected when a client sends {@code Accept: application/cbor}.
+     * Shares the Boot Jackson settings (modules, date handling) with the JSON converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, PayloadFormatMetrics metrics) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                metrics.measure("cbor", outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
+
+    /**
+     * Smile converter, selected when a client sends {@code Accept: application/x-jackson-smile}.
+     * Smile back-references repeated field names, which suits large product lists.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, PayloadFormatMetrics metrics) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                metrics.measure("smile", outputMessage, message -> super.writeInternal(object, type, message));
+            }
+        };
+    }
 }
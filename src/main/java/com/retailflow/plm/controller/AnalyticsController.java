@@ -0,0 +1,59 @@
+package com.retailflow.plm.controller;
+
+import com.retailflow.plm.service.LifecycleRollupService;
+import com.retailflow.plm.service.LifecycleRollupService.LifecycleReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private LifecycleRollupService lifecycleRollupService;
+
+    /**
+     * GET /api/analytics/lifecycle - Lifecycle throughput and stage lead times.
+     * Returns how many products entered each status per day and per week (e.g. weekly arrivals in MARKET),
+     * and per category the distribution of time spent in each stage, for stages left within the range.
+     * Served from rollup tables only.
+     * @param from First day (ISO date, inclusive); defaults to 30 days before {@code to}.
+     * @param to Last day (ISO date, inclusive); defaults to today.
+     * @param category Optional category to restrict the report to.
+     * @return The report with HTTP status 200 OK, or 400 Bad Request if the range is invalid or longer than a year.
+     */
+    @GetMapping("/lifecycle")
+    public ResponseEntity<LifecycleReport> getLifecycleReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+        logger.info("GET /api/analytics/lifecycle - Report from {} to {} (category {})", start, end, category);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+            logger.warn("Invalid lifecycle report range {} to {}", start, end);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(lifecycleRollupService.getReport(start, end, category));
+        } catch (Exception e) {
+            logger.error("Error building lifecycle report: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
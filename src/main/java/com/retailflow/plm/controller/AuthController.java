@@ -1,8 +1,10 @@
 package com.retailflow.plm.controller;
 
+import com.retailflow.plm.config.PasswordHashingRejectedException;
 import com.retailflow.plm.model.User;
 import com.retailflow.plm.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,6 +37,9 @@ public class AuthController {
         } catch (IllegalArgumentException e) {
             logger.warn("User registration failed for {}: {}", user.getUsername(), e.getMessage());
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("User registration for {} rejected: {}", user.getUsername(), e.getMessage());
+            return busy();
         } catch (Exception e) {
             logger.error("Error during user registration for {}: {}", user.getUsername(), e.getMessage(), e);
             return new ResponseEntity<>("User registration failed due to an unexpected error.", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -51,6 +56,9 @@ public class AuthController {
             SecurityContextHolder.getContext().setAuthentication(authentication);
             logger.info("User {} logged-in successfully!", loginUser.getUsername());
             return new ResponseEntity<>("User logged-in successfully!", HttpStatus.OK);
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Authentication for user {} rejected: {}", loginUser.getUsername(), e.getMessage());
+            return busy();
         } catch (Exception e) {
             logger.error("Authentication failed for user {}: {}", loginUser.getUsername(), e.getMessage());
             return new ResponseEntity<>("Invalid username or password.", HttpStatus.UNAUTHORIZED);
@@ -70,4 +78,11 @@ public class AuthController {
         logger.info("GET /api/auth/users/me - Authenticated user: {} with roles: [{}]", username, roles);
         return new ResponseEntity<>("Authenticated user: " + username + " with roles: [" + roles + "]", HttpStatus.OK);
     }
+
+    // 503 with Retry-After when the password hashing executor is saturated
+    private static ResponseEntity<String> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Server is busy, please retry shortly.");
+    }
 }
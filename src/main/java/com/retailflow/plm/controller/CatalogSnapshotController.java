@@ -0,0 +1,85 @@
+package com.retailflow.plm.controller;
+
+import com.retailflow.plm.service.CatalogSnapshotService;
+import com.retailflow.plm.service.CatalogSnapshotService.Snapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+@RestController
+@RequestMapping("/api/products/snapshot")
+public class CatalogSnapshotController {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotController.class);
+
+    // Tomcat request attributes for handing a file to the connector's sendfile support
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    /**
+     * GET /api/products/snapshot - Downloads the newest full-catalog snapshot
+     * (gzip-compressed NDJSON, one product per line).
+     *
+     * <p>The file is streamed with the connector's sendfile support when available, otherwise
+     * with {@link FileChannel#transferTo}, so no per-request database or serialization work is done.
+     * Clients should send {@code If-None-Match} with the previous ETag to get a 304 when unchanged.</p>
+     *
+     * @return 200 with the file, 304 Not Modified, or 503 Service Unavailable if no snapshot exists yet.
+     */
+    @GetMapping
+    public void downloadSnapshot(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Snapshot snapshot = catalogSnapshotService.getCurrentSnapshot();
+        if (snapshot == null) {
+            logger.warn("GET /api/products/snapshot - No snapshot has been built yet");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "60");
+            return;
+        }
+
+        // Sets ETag/Last-Modified and answers 304 if the client already has this snapshot
+        if (new ServletWebRequest(request, response).checkNotModified(snapshot.etag(), snapshot.builtAt().toEpochMilli())) {
+            return;
+        }
+
+        logger.info("GET /api/products/snapshot - Serving {} ({} bytes)", snapshot.file().getFileName(), snapshot.size());
+        response.setContentType("application/gzip");
+        response.setContentLengthLong(snapshot.size());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + snapshot.file().getFileName() + "\"");
+
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, snapshot.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, snapshot.size());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot.file(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < snapshot.size()) {
+                position += channel.transferTo(position, snapshot.size() - position, target);
+            }
+        }
+    }
+}
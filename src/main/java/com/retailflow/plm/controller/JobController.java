@@ -0,0 +1,100 @@
+package com.retailflow.plm.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.retailflow.plm.model.Job;
+import com.retailflow.plm.model.JobStatus;
+import com.retailflow.plm.service.JobQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    // Upper bound for the number of jobs returned by one listing
+    private static final int MAX_LIST_LIMIT = 500;
+
+    @Autowired
+    private JobQueue jobQueue;
+
+    /**
+     * POST /api/jobs - Queues a background job.
+     * @param request The job type, its JSON payload and an optional earliest start time.
+     * @return The queued job with HTTP status 202 Accepted and a Location to poll,
+     * or 400 Bad Request if the type is unknown or the payload is invalid.
+     */
+    @PostMapping
+    public ResponseEntity<Job> enqueueJob(@RequestBody JobRequest request) {
+        logger.info("POST /api/jobs - Queueing job of type {}", request.type());
+        try {
+            Job job = jobQueue.enqueue(request.type(), request.payload(), request.runAfter());
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected job of type {}: {}", request.type(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error queueing job of type {}: {}", request.type(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * GET /api/jobs/{id} - Retrieves the state of a job (status, attempts, last error).
+     * @return The job with HTTP status 200 OK, or 404 Not Found if not found.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Job> getJob(@PathVariable Long id) {
+        logger.info("GET /api/jobs/{} - Fetching job", id);
+        return jobQueue.getJob(id).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/jobs - Lists the most recent jobs, optionally filtered by status and type.
+     * @return Up to {@code limit} jobs, newest first, with HTTP status 200 OK,
+     * or 400 Bad Request for an invalid status or limit.
+     */
+    @GetMapping
+    public ResponseEntity<List<Job>> getJobs(@RequestParam(required = false) String status,
+                                             @RequestParam(required = false) String type,
+                                             @RequestParam(defaultValue = "50") int limit) {
+        logger.info("GET /api/jobs - status={}, type={}, limit={}", status, type, limit);
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            JobStatus jobStatus = status == null ? null : JobStatus.valueOf(status.toUpperCase());
+            return ResponseEntity.ok(jobQueue.getRecentJobs(jobStatus, type, limit));
+        } catch (IllegalArgumentException e) {
+            // Catches error if JobStatus.valueOf() fails (invalid status string)
+            logger.error("Invalid job status: {}", status, e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /api/jobs/stats - Number of jobs per type and status (queue depth, failures).
+     * @return The counts with HTTP status 200 OK.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Map<String, Long>>> getJobCounts() {
+        logger.info("GET /api/jobs/stats - Fetching job counts");
+        return ResponseEntity.ok(jobQueue.getCounts());
+    }
+
+    /**
+     * Body of a job submission.
+     */
+    public record JobRequest(String type, JsonNode payload, LocalDateTime runAfter) {
+    }
+}
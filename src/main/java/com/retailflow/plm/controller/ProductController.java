@@ -1,81 +1,293 @@
 package com.retailflow.plm.controller;
 
+import com.retailflow.plm.config.WebConfig;
 import com.retailflow.plm.model.Product;
 import com.retailflow.plm.model.ProductStatus;
+import com.retailflow.plm.service.IdempotencyKeyException;
+import com.retailflow.plm.service.IdempotencyService;
+import com.retailflow.plm.service.ProductCreateBatcher;
+import com.retailflow.plm.service.ProductCreateBatcher.CreateResult;
+import com.retailflow.plm.service.ProductCreateBatcher.CreateStatus;
+import com.retailflow.plm.service.ProductCreateBatcher.PendingCreate;
+import com.retailflow.plm.service.ProductFacetIndex;
+import com.retailflow.plm.service.ProductFacetIndex.FacetQuery;
+import com.retailflow.plm.service.ProductFacetIndex.FacetResult;
 import com.retailflow.plm.service.ProductService;
+import com.retailflow.plm.service.ProductService.ProductLookup;
+import org.postgresql.util.PSQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 // @CrossOrigin(origins = "*") // REMOVE THIS LINE
 @RestController
-@RequestMapping("/api/products")
+// Responses are negotiated from the Accept header: JSON by default, CBOR or Smile for binary consumers
+@RequestMapping(value = "/api/products",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
 public class ProductController {
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+
+    private static final String UNIQUE_VIOLATION = "23505"; // SQLState
+    private static final String PRODUCT_ID_CONSTRAINT = "products_product_id_key"; // Postgres name of UNIQUE (product_id)
     
     @Autowired
     private ProductService productService;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductCreateBatcher productCreateBatcher;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // How long a mode=batched create waits for its group commit before answering 202 instead
+    private static final long BATCHED_CREATE_TIMEOUT_SECONDS = 10;
+
+    // Upper bound for the page size of faceted queries
+    private static final int MAX_FACET_PAGE_SIZE = 500;
+
+    // Upper bound for the number of keys in one batch lookup
+    private static final int MAX_LOOKUP_KEYS = 2000;
     
     /**
      * GET /api/products - Retrieves all products.
+     * @param includeArchived Whether to also return products moved to the archive (default false).
      * @return A list of all products with HTTP status 200 OK.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        logger.info("GET /api/products - Fetching all products");
-        List<Product> products = productService.getAllProducts();
+    public ResponseEntity<List<Product>> getAllProducts(@RequestParam(defaultValue = "false") boolean includeArchived) {
+        logger.info("GET /api/products - Fetching all products (includeArchived={})", includeArchived);
+        List<Product> products = includeArchived
+                ? productService.getAllProductsIncludingArchived()
+                : productService.getAllProducts();
         return ResponseEntity.ok(products);
     }
     
     /**
      * GET /api/products/{id} - Retrieves a product by its database ID.
      * @param id The ID of the product.
+     * @param includeArchived Whether to also look in the archive (default false).
      * @return The product with HTTP status 200 OK, or 404 Not Found if not found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable Long id,
+                                                  @RequestParam(defaultValue = "false") boolean includeArchived) {
         logger.info("GET /api/products/{} - Fetching product by ID", id);
-        Optional<Product> product = productService.getProductById(id);
+        Optional<Product> product = includeArchived
+                ? productService.getProductByIdIncludingArchived(id)
+                : productService.getProductById(id);
         return product.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * POST /api/products/lookup - Retrieves many products in one round trip.
+     * The body holds either database IDs ({@code {"ids": [1, 2]}}) or business IDs
+     * ({@code {"productIds": ["PRD-001", "PRD-002"]}}), at most 2000 of them.
+     * @return One entry per requested key, in request order, with {@code found: false} for unknown keys,
+     * with HTTP status 200 OK, or 400 Bad Request if the body is empty, mixes both kinds, has null keys or too many.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<? extends ProductLookup<?>>> lookupProducts(@RequestBody LookupRequest request) {
+        boolean byId = request.ids() != null && !request.ids().isEmpty();
+        boolean byProductId = request.productIds() != null && !request.productIds().isEmpty();
+        List<?> keys = byId ? request.ids() : request.productIds();
+        if (byId == byProductId || keys.size() > MAX_LOOKUP_KEYS || keys.contains(null)) {
+            logger.warn("POST /api/products/lookup - Invalid lookup request");
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("POST /api/products/lookup - Fetching {} products by {}", keys.size(), byId ? "ID" : "Product ID");
+        return ResponseEntity.ok(byId
+                ? productService.getProductsByIds(request.ids())
+                : productService.getProductsByProductIds(request.productIds()));
+    }
     
     /**
      * POST /api/products - Creates a new product.
+     * With an {@code Idempotency-Key} header, retries with the same key and body get the original
+     * response instead of creating the product again (see {@link IdempotencyService}).
      * @param product The Product object to create (sent in the request body).
-     * @return The created product with HTTP status 201 Created, or 400 Bad Request on error.
+     * @param idempotencyKey Optional client-chosen key identifying this create across retries.
+     * @return The created product with HTTP status 201 Created, 409 Conflict if the productId already exists
+     * or the key is still in use, 422 Unprocessable Entity if the key was used with another body,
+     * or 400 Bad Request on error.
      */
     @PostMapping
-    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
+    public ResponseEntity<Product> createProduct(@RequestBody Product product,
+                                                 @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         logger.info("POST /api/products - Creating new product: {}", product.getProductId());
+        if (idempotencyKey == null) {
+            return create(product);
+        }
+        try {
+            return idempotencyService.execute("POST /api/products", idempotencyKey, product, Product.class,
+                    () -> create(product));
+        } catch (IdempotencyKeyException e) {
+            logger.warn("Rejecting create of {} with {} {}: {}", product.getProductId(), IdempotencyService.HEADER,
+                    idempotencyKey, e.getMessage());
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+
+    private ResponseEntity<Product> create(Product product) {
         try {
             Product createdProduct = productService.createProduct(product);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateProductId(e)) {
+                logger.warn("Product {} already exists: {}", product.getProductId(), e.getMostSpecificCause().getMessage());
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            logger.warn("Invalid product {}: {}", product.getProductId(), e.getMostSpecificCause().getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error creating product: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
     
+    // Only the unique key on product_id means "already exists"; other violations (nulls, lengths) are bad input
+    private static boolean isDuplicateProductId(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof PSQLException psql
+                && UNIQUE_VIOLATION.equals(psql.getSQLState())
+                && psql.getServerErrorMessage() != null
+                && PRODUCT_ID_CONSTRAINT.equals(psql.getServerErrorMessage().getConstraint());
+    }
+
+    /**
+     * POST /api/products?mode=async - Queues a product for group commit and returns immediately.
+     * Use this for high-rate creation (e.g. catalog onboarding); poll the returned tracking id
+     * at GET /api/products/creates/{trackingId} for the outcome.
+     * @param product The Product object to create.
+     * @return 202 Accepted with the tracking id, or 503 Service Unavailable if the queue is full or disabled.
+     */
+    @PostMapping(params = "mode=async")
+    public ResponseEntity<CreateResult> createProductAsync(@RequestBody Product product) {
+        logger.info("POST /api/products?mode=async - Queueing product: {}", product.getProductId());
+        if (!productCreateBatcher.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        try {
+            PendingCreate pending = productCreateBatcher.submit(product);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/products/creates/" + pending.getTrackingId()))
+                    .body(new CreateResult(pending.getTrackingId(), CreateStatus.PENDING, null, null));
+        } catch (IllegalStateException e) {
+            logger.warn("Rejecting async create for {}: {}", product.getProductId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * POST /api/products?mode=batched - Creates a product through the group-commit path and waits
+     * for the batch it lands in to commit.
+     * @param product The Product object to create.
+     * @return 201 Created with the result, 409 Conflict for a duplicate productId, 400 Bad Request for
+     * an invalid product, 500 if the batch failed, 202 Accepted if the commit is still pending after the wait timeout,
+     * or 503 Service Unavailable if the queue is full or disabled.
+     */
+    @PostMapping(params = "mode=batched")
+    public ResponseEntity<CreateResult> createProductBatched(@RequestBody Product product) {
+        logger.info("POST /api/products?mode=batched - Creating product: {}", product.getProductId());
+        if (!productCreateBatcher.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        PendingCreate pending;
+        try {
+            pending = productCreateBatcher.submit(product);
+        } catch (IllegalStateException e) {
+            logger.warn("Rejecting batched create for {}: {}", product.getProductId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        try {
+            CreateResult result = pending.getFuture().get(BATCHED_CREATE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return ResponseEntity.status(toHttpStatus(result.status())).body(result);
+        } catch (TimeoutException e) {
+            return ResponseEntity.accepted()
+                    .body(new CreateResult(pending.getTrackingId(), CreateStatus.PENDING, null, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            logger.error("Error creating product {} via group commit: {}", product.getProductId(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * GET /api/products/creates/{trackingId} - Outcome of a create queued with mode=async.
+     * @param trackingId The tracking id returned by the async create.
+     * @return The result (PENDING, CREATED, DUPLICATE, INVALID or FAILED) with HTTP status 200 OK,
+     * or 404 Not Found if the id is unknown or its result has expired.
+     */
+    @GetMapping("/creates/{trackingId}")
+    public ResponseEntity<CreateResult> getCreateResult(@PathVariable String trackingId) {
+        if (!productCreateBatcher.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return productCreateBatcher.getResult(trackingId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static HttpStatus toHttpStatus(CreateStatus status) {
+        return switch (status) {
+            case CREATED -> HttpStatus.CREATED;
+            case DUPLICATE -> HttpStatus.CONFLICT;
+            case INVALID -> HttpStatus.BAD_REQUEST;
+            case FAILED -> HttpStatus.INTERNAL_SERVER_ERROR;
+            case PENDING -> HttpStatus.ACCEPTED;
+        };
+    }
+
     /**
      * PUT /api/products/{id}/status - Updates the status of an existing product.
+     * Supports an {@code Idempotency-Key} header like {@link #createProduct}.
      * @param id The ID of the product to update.
      * @param statusUpdate A map containing the new status (e.g., {"status": "PROTOTYPE"}).
+     * @param idempotencyKey Optional client-chosen key identifying this update across retries.
      * @return The updated product with HTTP status 200 OK, or 404 Not Found if product doesn't exist,
      * or 400 Bad Request if the status value is invalid.
      */
     @PutMapping("/{id}/status")
     public ResponseEntity<Product> updateProductStatus(
             @PathVariable Long id, 
-            @RequestBody Map<String, String> statusUpdate) {
+            @RequestBody Map<String, String> statusUpdate,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         logger.info("PUT /api/products/{}/status - Updating product status", id);
+        if (idempotencyKey == null) {
+            return updateStatus(id, statusUpdate);
+        }
+        try {
+            return idempotencyService.execute("PUT /api/products/" + id + "/status", idempotencyKey, statusUpdate,
+                    Product.class, () -> updateStatus(id, statusUpdate));
+        } catch (IdempotencyKeyException e) {
+            logger.warn("Rejecting status update of product {} with {} {}: {}", id, IdempotencyService.HEADER,
+                    idempotencyKey, e.getMessage());
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+
+    private ResponseEntity<Product> updateStatus(Long id, Map<String, String> statusUpdate) {
         try {
             // Convert string status from request to ProductStatus enum
             ProductStatus newStatus = ProductStatus.valueOf(statusUpdate.get("status").toUpperCase());
@@ -95,14 +307,18 @@ public class ProductController {
     /**
      * GET /api/products/status/{status} - Retrieves products filtered by status.
      * @param status The status string (e.g., "DESIGN") to filter products by.
+     * @param includeArchived Whether to also return archived products (only DISCONTINUED ones are archived).
      * @return A list of products matching the status with HTTP status 200 OK, or 400 Bad Request if status is invalid.
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Product>> getProductsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<Product>> getProductsByStatus(@PathVariable String status,
+                                                             @RequestParam(defaultValue = "false") boolean includeArchived) {
         logger.info("GET /api/products/status/{} - Fetching products by status", status);
         try {
             ProductStatus productStatus = ProductStatus.valueOf(status.toUpperCase());
-            List<Product> products = productService.getProductsByStatus(productStatus);
+            List<Product> products = includeArchived
+                    ? productService.getProductsByStatusIncludingArchived(productStatus)
+                    : productService.getProductsByStatus(productStatus);
             return ResponseEntity.ok(products);
         } catch (IllegalArgumentException e) {
             // Catches error if ProductStatus.valueOf() fails (invalid status string)
@@ -113,4 +329,67 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * GET /api/products/category/{category} - Retrieves products in a category.
+     * @param category The category name, matched case-insensitively (e.g. "apparel" finds "Apparel").
+     * @return A list of products in the category with HTTP status 200 OK (empty for an unknown category).
+     */
+    @GetMapping("/category/{category}")
+    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
+        logger.info("GET /api/products/category/{} - Fetching products by category", category);
+        try {
+            return ResponseEntity.ok(productService.getProductsByCategory(category));
+        } catch (Exception e) {
+            logger.error("Error fetching products in category {}: {}", category, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * GET /api/products/facets - Combined filtering with facet counts.
+     * Filters can be repeated (e.g. ?status=DESIGN&status=PROTOTYPE&category=Apparel) and combined
+     * with created/updated date ranges (ISO date-time, inclusive bounds). Categories match case-insensitively
+     * and are counted under their canonical spelling.
+     * @return A page of matching products with the total count and per-status / per-category counts,
+     * 400 Bad Request for an invalid status or page, or 503 Service Unavailable while the index is being built.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResult> searchProducts(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        logger.info("GET /api/products/facets - status={}, category={}, page={}, size={}", status, category, page, size);
+        // page * size is the result offset; keep it within int
+        if (page < 0 || size < 1 || size > MAX_FACET_PAGE_SIZE || page > Integer.MAX_VALUE / size) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!productFacetIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        try {
+            Set<ProductStatus> statuses = EnumSet.noneOf(ProductStatus.class);
+            if (status != null) {
+                status.forEach(value -> statuses.add(ProductStatus.valueOf(value.toUpperCase())));
+            }
+            Set<String> categories = category == null ? Set.of() : new HashSet<>(category);
+            FacetQuery query = new FacetQuery(statuses, categories, createdFrom, createdTo, updatedFrom, updatedTo, page, size);
+            return ResponseEntity.ok(productFacetIndex.search(query));
+        } catch (IllegalArgumentException e) {
+            // Catches error if ProductStatus.valueOf() fails (invalid status string)
+            logger.error("Invalid status filter: {}", status, e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Body of a batch lookup: exactly one of the two lists must be non-empty.
+     */
+    public record LookupRequest(List<Long> ids, List<String> productIds) {
+    }
 }
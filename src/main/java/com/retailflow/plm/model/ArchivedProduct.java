@@ -0,0 +1,101 @@
+package com.retailflow.plm.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a product moved to the 'products_archive' table by the archival job.
+ * Holds the same columns as {@link Product} (including its original ID) plus the archival time.
+ * Archived products are read-only and only returned when explicitly requested.
+ * Marked {@code @Immutable} so Hibernate neither snapshots nor dirty-checks loaded rows.
+ */
+@Entity
+@Immutable
+@Table(name = "products_archive")
+public class ArchivedProduct {
+
+    // Same primary key the product had in the 'products' table (not generated)
+    @Id
+    private Long id;
+
+    // Unique identifier for the product (business key)
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String description;
+
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProductStatus status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Timestamp when the product was moved out of the 'products' table
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Default constructor required for JPA.
+     */
+    public ArchivedProduct() {}
+
+    /**
+     * Converts this archived row back into a (detached) {@link Product} for API responses.
+     */
+    public Product toProduct() {
+        Product product = new Product(productId, name, description, category);
+        product.setId(id);
+        product.setStatus(status);
+        product.setCreatedAt(createdAt);
+        product.setUpdatedAt(updatedAt);
+        return product;
+    }
+
+    // Getters are required for JPA; archived rows are written by SQL only, so there are no setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public ProductStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
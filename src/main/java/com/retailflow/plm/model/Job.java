@@ -0,0 +1,121 @@
+package com.retailflow.plm.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a background job stored in the 'jobs' table.
+ * Rows are written by {@code JobQueue} with SQL (enqueue, claim, completion), so this entity
+ * is only used to read job state for the status endpoints.
+ */
+@Entity
+@Table(name = "jobs")
+public class Job {
+
+    @Id
+    private Long id;
+
+    // Job type, selects the JobHandler that runs it (e.g. bulk-status-transition)
+    @Column(nullable = false)
+    private String type;
+
+    // Handler-specific JSON arguments
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    // Number of times the job has been claimed so far
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private int maxAttempts;
+
+    // Earliest time the job may be claimed (set further out after each failed attempt)
+    @Column(name = "run_after", nullable = false)
+    private LocalDateTime runAfter;
+
+    // Claim token of the worker currently running the job
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    // Visibility timeout: once passed without a heartbeat, another worker may reclaim the job
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Default constructor required for JPA.
+     */
+    public Job() {}
+
+    // Getters are required for JPA and JSON serialization; rows are written by SQL only
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    @JsonRawValue // Already JSON, emit as-is instead of as a quoted string
+    public String getPayload() {
+        return payload;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public LocalDateTime getRunAfter() {
+        return runAfter;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.retailflow.plm.model;
+
+public enum JobStatus {
+    QUEUED("Waiting to be claimed by a worker"),
+    RUNNING("Claimed by a worker"),
+    SUCCEEDED("Completed successfully"),
+    FAILED("Failed after its last attempt");
+
+    private final String description;
+
+    JobStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -1,5 +1,6 @@
 package com.retailflow.plm.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -27,9 +28,14 @@ public class Product {
     // Description of the product (optional)
     private String description;
 
-    // Product category (e.g., electronics, apparel)
+    // Product category (e.g., electronics, apparel), in the canonical spelling of the category dictionary
     private String category;
 
+    // Integer key of the category in the 'categories' dictionary; used for category filters
+    @JsonIgnore
+    @Column(name = "category_id")
+    private Integer categoryId;
+
     // Enum to represent current product status (e.g., DESIGN, MANUFACTURING)
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -118,6 +124,14 @@ public class Product {
         this.category = category;
     }
 
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
     public ProductStatus getStatus() {
         return status;
     }
@@ -0,0 +1,19 @@
+package com.retailflow.plm.repository;
+
+import com.retailflow.plm.model.ArchivedProduct;
+import com.retailflow.plm.model.ProductStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedProductRepository extends JpaRepository<ArchivedProduct, Long> {
+    // Custom query to find archived products by their status
+    List<ArchivedProduct> findByStatus(ProductStatus status);
+
+    // Custom query returning the IDs archived at or after a point in time (removal from read models on every node)
+    @Query("SELECT a.id FROM ArchivedProduct a WHERE a.archivedAt >= ?1")
+    List<Long> findIdsArchivedSince(LocalDateTime since);
+}
@@ -0,0 +1,20 @@
+package com.retailflow.plm.repository;
+
+import com.retailflow.plm.model.Job;
+import com.retailflow.plm.model.JobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+    // Most recent jobs first, optionally narrowed by status and/or type
+    List<Job> findAllByOrderByIdDesc(Pageable pageable);
+
+    List<Job> findByStatusOrderByIdDesc(JobStatus status, Pageable pageable);
+
+    List<Job> findByTypeOrderByIdDesc(String type, Pageable pageable);
+
+    List<Job> findByStatusAndTypeOrderByIdDesc(JobStatus status, String type, Pageable pageable);
+}
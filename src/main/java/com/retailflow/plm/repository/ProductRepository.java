@@ -2,24 +2,71 @@ package com.retailflow.plm.repository;
 
 import com.retailflow.plm.model.Product;
 import com.retailflow.plm.model.ProductStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * List queries are marked read-only: Hibernate keeps no dirty-checking snapshot of the loaded
+ * products and never flushes them, even when called from a read-write transaction. Use
+ * {@link #findById} or {@link #findByIdForUpdate} (not a list query) to load a product that is going to be modified.
+ */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    // Full table read (list endpoint); fetched from the driver in chunks, but all rows end up in the list
+    @Override
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FETCH_SIZE, value = "500")})
+    List<Product> findAll();
+
+    // Full table read for the read models; rows are fetched from the driver 500 at a time as the
+    // stream is consumed. Must be read inside a transaction and closed (see ProductScanner)
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FETCH_SIZE, value = "500")})
+    @Query("SELECT p FROM Product p")
+    Stream<Product> streamAll();
+
+    // Batch load by primary key (lookup endpoint, cache invalidation)
+    @Override
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<Product> findAllById(Iterable<Long> ids);
+
+    // Loads a product for modification and locks its row until the transaction ends (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = ?1")
+    Optional<Product> findByIdForUpdate(Long id);
+
     // Custom query to find a product by its unique business product_id
     Optional<Product> findByProductId(String productId);
 
+    // Custom query to find the products with any of the given business product_ids (batch lookup)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<Product> findByProductIdIn(Collection<String> productIds);
+
     // Custom query to find all products by their status
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FETCH_SIZE, value = "500")})
     List<Product> findByStatus(ProductStatus status);
 
-    // Custom query to find all products by their category
-    List<Product> findByCategory(String category);
+    // Custom query to find all products by their category key (see CategoryDictionary)
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FETCH_SIZE, value = "500")})
+    List<Product> findByCategoryId(Integer categoryId);
+
+    // Custom query to find products changed at or after a point in time (incremental snapshot/cache refresh)
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FETCH_SIZE, value = "500")})
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
     
     // Custom query to search products by name or description (case-insensitive)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Product p WHERE p.name ILIKE %?1% OR p.description ILIKE %?1%")
     List<Product> searchByNameOrDescription(String searchTerm);
 }
@@ -0,0 +1,27 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job type {@code archive-discontinued}: runs the archival of long-discontinued products
+ * now instead of waiting for the next scheduled run. No payload.
+ * Fails (and is retried) if a chunk fails or archiving is disabled.
+ */
+@Component
+public class ArchiveDiscontinuedJobHandler implements JobHandler {
+
+    @Autowired
+    private ProductArchiver productArchiver;
+
+    @Override
+    public String getType() {
+        return "archive-discontinued";
+    }
+
+    @Override
+    public void handle(JsonNode payload) {
+        productArchiver.archiveDiscontinuedOrThrow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.retailflow.plm.model.ProductStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job type {@code bulk-status-transition}: moves many products to one status.
+ * Payload: {@code {"ids": [1, 2, 3], "status": "MARKET"}}.
+ *
+ * <p>Each product is updated in its own transaction through {@link ProductService}, so status
+ * history, rollups and read models are maintained as for single updates. Re-running the job
+ * after a partial failure is safe: products already in the target status are left as they are.</p>
+ */
+@Component
+public class BulkStatusTransitionJobHandler implements JobHandler {
+    private static final Logger logger = LoggerFactory.getLogger(BulkStatusTransitionJobHandler.class);
+
+    private static final int MAX_PRODUCTS = 10_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Override
+    public String getType() {
+        return "bulk-status-transition";
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return 2;
+    }
+
+    @Override
+    public void validate(JsonNode payload) {
+        if (payload == null || !payload.path("ids").isArray() || payload.path("ids").isEmpty()) {
+            throw new IllegalArgumentException("Payload must contain a non-empty 'ids' array");
+        }
+        if (payload.path("ids").size() > MAX_PRODUCTS) {
+            throw new IllegalArgumentException("At most " + MAX_PRODUCTS + " products per job");
+        }
+        for (JsonNode id : payload.path("ids")) {
+            if (!id.canConvertToLong()) {
+                throw new IllegalArgumentException("Invalid product id: " + id);
+            }
+        }
+        ProductStatus.valueOf(payload.path("status").asText().toUpperCase()); // IllegalArgumentException if invalid
+    }
+
+    @Override
+    public void handle(JsonNode payload) {
+        ProductStatus status = ProductStatus.valueOf(payload.path("status").asText().toUpperCase());
+        int updated = 0;
+        int missing = 0;
+        for (JsonNode id : payload.path("ids")) {
+            boolean found = productService.getProductById(id.asLong())
+                    .map(product -> product.getStatus() == status
+                            || productService.updateProductStatus(product.getId(), status).isPresent())
+                    .orElse(false);
+            if (found) {
+                updated++;
+            } else {
+                missing++;
+            }
+        }
+        logger.info("Bulk transition to {}: {} products now in that status, {} not found", status, updated, missing);
+    }
+}
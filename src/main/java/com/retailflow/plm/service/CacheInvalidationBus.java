@@ -0,0 +1,331 @@
+package com.retailflow.plm.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node cache invalidation over Postgres {@code LISTEN/NOTIFY}.
+ *
+ * <p>Writers call {@link #publish} inside their transaction; Postgres delivers the notification
+ * to every listening node only if the transaction commits. A notification payload is
+ * {@code node|type|id|version} (version = the entity's {@code updated_at} in epoch milliseconds).</p>
+ *
+ * <p>Each node keeps one dedicated listener connection (outside the connection pool, opened with
+ * the pool's URL and driver properties plus TCP keepalive and a socket timeout). Received
+ * notifications from other nodes are collected for {@code plm.invalidation.batch-ms},
+ * deduplicated per entity and dispatched as one {@link CacheInvalidationEvent} on a separate
+ * dispatcher thread, so slow listeners never hold up receiving; while a dispatch is running,
+ * newer notifications keep being merged into the next batch. The connection is probed with
+ * {@code SELECT 1} every {@code plm.invalidation.heartbeat-ms}, so a half-open connection is
+ * detected. When the connection drops, notifications sent in the meantime are lost, so after
+ * reconnecting a full-resync event is dispatched instead.</p>
+ */
+@Component
+public class CacheInvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String PRODUCT = "product";
+    public static final String USER = "user";
+
+    // Identifies this JVM so it can ignore its own notifications (local caches are updated directly)
+    private static final String NODE_ID = UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.invalidation.channel:plm_invalidation}")
+    private String channel;
+
+    @Value("${plm.invalidation.batch-ms:100}")
+    private int batchMs;
+
+    @Value("${plm.invalidation.reconnect-ms:5000}")
+    private long reconnectMs;
+
+    @Value("${plm.invalidation.heartbeat-ms:30000}")
+    private long heartbeatMs;
+
+    @Value("${plm.invalidation.socket-timeout-ms:10000}")
+    private long socketTimeoutMs;
+
+    private Counter published;
+    private Counter received;
+    private Counter resyncs;
+    private Thread listener;
+    private ExecutorService dispatcher;
+    private Future<?> dispatching; // Only touched by the listener thread
+    private volatile boolean running;
+    private volatile Connection connection;
+
+    @PostConstruct
+    void start() {
+        published = Counter.builder("plm.invalidation.published")
+                .description("Cache invalidation notifications sent")
+                .register(meterRegistry);
+        received = Counter.builder("plm.invalidation.received")
+                .description("Cache invalidation notifications received from other nodes")
+                .register(meterRegistry);
+        resyncs = Counter.builder("plm.invalidation.resyncs")
+                .description("Full cache resyncs after the listener reconnected")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid plm.invalidation.channel: " + channel); // Used verbatim in LISTEN
+        }
+        if (socketTimeoutMs <= batchMs) {
+            throw new IllegalStateException("plm.invalidation.socket-timeout-ms must be longer than batch-ms");
+        }
+        dispatcher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("cache-invalidation-dispatch-"));
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (listener == null) {
+            return;
+        }
+        closeQuietly(connection); // Unblocks the listener thread
+        listener.interrupt();
+        listener.join(TimeUnit.SECONDS.toMillis(5));
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Announces that an entity changed. Call inside the writing transaction.
+     *
+     * @param entityType {@link #PRODUCT} or {@link #USER}
+     * @param id         the entity's database ID
+     * @param version    the entity's {@code updatedAt} after the write
+     */
+    public void publish(String entityType, Long id, LocalDateTime version) {
+        publishAll(entityType, Map.of(id, version));
+    }
+
+    /**
+     * Announces several changed entities of one type with a single statement.
+     *
+     * @param entityType {@link #PRODUCT} or {@link #USER}
+     * @param versions   the entities' IDs and {@code updatedAt} after the write
+     */
+    public void publishAll(String entityType, Map<Long, LocalDateTime> versions) {
+        if (!enabled || versions.isEmpty()) {
+            return;
+        }
+        String[] payloads = versions.entrySet().stream()
+                .map(entry -> NODE_ID + "|" + entityType + "|" + entry.getKey() + "|" + toVersion(entry.getValue()))
+                .toArray(String[]::new);
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement("SELECT pg_notify(?, payload) FROM unnest(?) AS payload");
+            statement.setString(1, channel);
+            statement.setArray(2, con.createArrayOf("text", payloads));
+            return statement;
+        }, rs -> {
+        });
+        published.increment(payloads.length);
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection listenerConnection = openConnection()) {
+                connection = listenerConnection;
+                try (Statement statement = listenerConnection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                logger.info("Cache invalidation listener connected (node {}, channel {})", NODE_ID, channel);
+                boolean resync = connectedBefore; // Anything published while disconnected was missed
+                connectedBefore = true;
+                receive(listenerConnection, resync);
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation listener disconnected, retrying in {} ms: {}", reconnectMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    // Same server, credentials and driver properties as the pool, plus settings that detect dead connections
+    private Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        String url;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            url = pool.getJdbcUrl();
+            properties.putAll(pool.getDataSourceProperties());
+            putIfNotNull(properties, "user", pool.getUsername());
+            putIfNotNull(properties, "password", pool.getPassword());
+        } else {
+            url = dataSourceProperties.determineUrl();
+            putIfNotNull(properties, "user", dataSourceProperties.determineUsername());
+            putIfNotNull(properties, "password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("socketTimeout", String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(socketTimeoutMs))));
+        properties.setProperty("ApplicationName", "plm-invalidation-listener");
+        return DriverManager.getConnection(url, properties);
+    }
+
+    // Collects notifications into batches until the connection fails or the bus stops
+    private void receive(Connection listenerConnection, boolean resync) throws SQLException {
+        PGConnection pgConnection = listenerConnection.unwrap(PGConnection.class);
+        Map<String, Invalidation> pending = new LinkedHashMap<>();
+        long batchStart = 0;
+        long lastHeartbeat = System.nanoTime();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(batchMs);
+            int count = notifications == null ? 0 : notifications.length;
+            for (int i = 0; i < count; i++) {
+                Invalidation invalidation = parse(notifications[i].getParameter());
+                if (invalidation == null) {
+                    continue;
+                }
+                received.increment();
+                if (pending.isEmpty()) {
+                    batchStart = System.nanoTime();
+                }
+                // Deduplicate: keep one entry per entity, with the newest version
+                pending.merge(invalidation.entityType() + ":" + invalidation.id(), invalidation,
+                        (existing, candidate) -> candidate.version() > existing.version() ? candidate : existing);
+            }
+            if (resync && isDispatcherIdle()) {
+                resyncs.increment();
+                dispatch(List.of(), true); // Covers everything received so far
+                pending.clear();
+                resync = false;
+            } else if (!pending.isEmpty() && isDispatcherIdle()
+                    && (count == 0 || System.nanoTime() - batchStart >= TimeUnit.MILLISECONDS.toNanos(batchMs))) {
+                dispatch(new ArrayList<>(pending.values()), false);
+                pending.clear();
+            }
+            if (System.nanoTime() - lastHeartbeat >= TimeUnit.MILLISECONDS.toNanos(heartbeatMs)) {
+                // Fails within the socket timeout if the server or the network path is gone
+                try (Statement statement = listenerConnection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                lastHeartbeat = System.nanoTime();
+            }
+        }
+    }
+
+    private boolean isDispatcherIdle() {
+        return dispatching == null || dispatching.isDone();
+    }
+
+    // Runs the listeners on the dispatcher thread; the listener thread keeps receiving meanwhile
+    private void dispatch(Collection<Invalidation> invalidations, boolean fullResync) {
+        dispatching = dispatcher.submit(() -> {
+            try {
+                eventPublisher.publishEvent(new CacheInvalidationEvent(invalidations, fullResync));
+            } catch (Exception e) {
+                logger.error("Cache invalidation listener failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    // Returns null for malformed payloads and for notifications sent by this node
+    private static Invalidation parse(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 4 || parts[0].equals(NODE_ID)) {
+            return null;
+        }
+        try {
+            return new Invalidation(parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed cache invalidation: {}", payload);
+            return null;
+        }
+    }
+
+    private static long toVersion(LocalDateTime updatedAt) {
+        return updatedAt == null ? 0 : updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static void putIfNotNull(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing invalidation listener connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One changed entity.
+     *
+     * @param entityType {@link #PRODUCT} or {@link #USER}
+     * @param id         the entity's database ID
+     * @param version    the entity's {@code updatedAt} in epoch milliseconds (0 if unknown)
+     */
+    public record Invalidation(String entityType, long id, long version) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.retailflow.plm.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published locally by {@link CacheInvalidationBus} when other nodes changed entities, so
+ * in-process caches can drop or reload them.
+ *
+ * <p>Delivered on the bus's single dispatcher thread ({@code cache-invalidation-dispatch-}), not on
+ * the thread receiving notifications, batched and deduplicated (one entry per entity with its
+ * highest version). Listeners run one after the other, so a slow listener delays the next
+ * batch; notifications arriving meanwhile are merged into it. A {@code fullResync} event means
+ * notifications may have been missed (the listener reconnected) and caches should reload
+ * everything.</p>
+ */
+public class CacheInvalidationEvent {
+
+    private final Collection<CacheInvalidationBus.Invalidation> invalidations;
+    private final boolean fullResync;
+
+    public CacheInvalidationEvent(Collection<CacheInvalidationBus.Invalidation> invalidations, boolean fullResync) {
+        this.invalidations = invalidations;
+        this.fullResync = fullResync;
+    }
+
+    /**
+     * @return the changed entities (empty for a full resync)
+     */
+    public Collection<CacheInvalidationBus.Invalidation> getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return the IDs of changed entities of one type (e.g. {@link CacheInvalidationBus#PRODUCT})
+     */
+    public List<Long> getIds(String entityType) {
+        return invalidations.stream()
+                .filter(invalidation -> invalidation.entityType().equals(entityType))
+                .map(CacheInvalidationBus.Invalidation::id)
+                .toList();
+    }
+
+    /**
+     * @return true if all cached entries should be considered stale
+     */
+    public boolean isFullResync() {
+        return fullResync;
+    }
+}
@@ -0,0 +1,27 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job type {@code catalog-snapshot}: rebuilds the catalog snapshot now instead of waiting
+ * for the next scheduled run. No payload.
+ * Fails (and is retried) if the build fails or snapshots are disabled.
+ */
+@Component
+public class CatalogSnapshotJobHandler implements JobHandler {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Override
+    public String getType() {
+        return "catalog-snapshot";
+    }
+
+    @Override
+    public void handle(JsonNode payload) throws Exception {
+        catalogSnapshotService.buildSnapshotOrThrow();
+    }
+}
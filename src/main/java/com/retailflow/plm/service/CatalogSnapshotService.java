@@ -0,0 +1,214 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.repository.ArchivedProductRepository;
+import com.retailflow.plm.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Periodically writes the whole product catalog to a gzip-compressed NDJSON file on local disk,
+ * so that full-catalog pulls can be served straight from the file without touching the database
+ * or Jackson on each request.
+ *
+ * <p>The builder keeps one serialized line per product in memory and only re-reads rows whose
+ * {@code updated_at} moved since the previous run. A new file is written only when at least one
+ * line actually changed; the previous file is kept for one more cycle so in-flight downloads of
+ * it can complete.</p>
+ */
+@Service
+public class CatalogSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final String FILE_PREFIX = "catalog-";
+    private static final String FILE_SUFFIX = ".ndjson.gz";
+
+    // Re-read a little before the watermark to tolerate clock skew between nodes and late commits
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductScanner productScanner;
+
+    @Autowired
+    private ArchivedProductRepository archivedProductRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${plm.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.snapshot.directory:${java.io.tmpdir}/retailflow-plm/snapshots}")
+    private String directory;
+
+    // Serialized NDJSON line per product database id, ordered by id for a stable file layout
+    private final Map<Long, byte[]> lines = new TreeMap<>();
+    private LocalDateTime watermark;
+    private LocalDateTime archiveWatermark;
+    private Snapshot previous;
+    private volatile Snapshot current;
+
+    /**
+     * Rebuilds the snapshot file if the catalog changed since the last run.
+     * Runs on a fixed delay, so two builds never overlap. Failures are logged and retried on the next run.
+     */
+    @Scheduled(initialDelayString = "${plm.snapshot.initial-delay-ms:10000}",
+               fixedDelayString = "${plm.snapshot.interval-ms:300000}")
+    public void buildSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            buildSnapshotOrThrow();
+        } catch (Exception e) {
+            logger.error("Failed to build catalog snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot file like the scheduled run, but reports failures to the caller.
+     *
+     * @throws IllegalStateException if snapshots are disabled
+     * @throws IOException           if the file could not be written
+     */
+    public synchronized void buildSnapshotOrThrow() throws IOException, NoSuchAlgorithmException {
+        if (!enabled) {
+            throw new IllegalStateException("Catalog snapshots are disabled (plm.snapshot.enabled=false)");
+        }
+        LocalDateTime pollStart = LocalDateTime.now();
+        boolean modified = false;
+        if (watermark == null) {
+            AtomicBoolean changed = new AtomicBoolean();
+            productScanner.forEach(product -> { // Full load, streamed instead of listed
+                if (apply(product)) {
+                    changed.set(true);
+                }
+            });
+            modified = changed.get();
+        } else {
+            for (Product product : productRepository.findByUpdatedAtGreaterThanEqual(watermark.minus(WATERMARK_OVERLAP))) {
+                modified |= apply(product);
+            }
+        }
+        // Archived products leave the snapshot
+        if (archiveWatermark != null) {
+            for (Long id : archivedProductRepository.findIdsArchivedSince(archiveWatermark.minus(WATERMARK_OVERLAP))) {
+                modified |= lines.remove(id) != null;
+            }
+        }
+        archiveWatermark = pollStart;
+
+        if (!modified && current != null) {
+            logger.debug("Catalog snapshot is up to date ({} products)", lines.size());
+            return;
+        }
+        writeSnapshot();
+    }
+
+    /**
+     * Returns the newest snapshot file, or {@code null} if none has been built yet.
+     */
+    public Snapshot getCurrentSnapshot() {
+        return current;
+    }
+
+    // Stores the product's line; true if it is new or differs from the stored one
+    private boolean apply(Product product) {
+        byte[] line;
+        try {
+            line = objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (product.getUpdatedAt() != null && (watermark == null || product.getUpdatedAt().isAfter(watermark))) {
+            watermark = product.getUpdatedAt();
+        }
+        byte[] existing = lines.put(product.getId(), line);
+        return existing == null || !Arrays.equals(existing, line);
+    }
+
+    private void writeSnapshot() throws IOException, NoSuchAlgorithmException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+
+        Instant builtAt = Instant.now();
+        Path tempFile = Files.createTempFile(dir, FILE_PREFIX, ".tmp");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (OutputStream out = new GZIPOutputStream(new DigestOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile)), digest), 64 * 1024)) {
+            for (byte[] line : lines.values()) {
+                out.write(line);
+                out.write('\n');
+            }
+        }
+
+        Path target = dir.resolve(FILE_PREFIX + builtAt.toEpochMilli() + FILE_SUFFIX);
+        Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        Snapshot snapshot = new Snapshot(target, Files.size(target), etag, builtAt, lines.size());
+        if (current != null) {
+            previous = current;
+        }
+        current = snapshot;
+        deleteStaleFiles(dir);
+
+        logger.info("Wrote catalog snapshot {} ({} products, {} bytes)",
+                target.getFileName(), snapshot.productCount(), snapshot.size());
+    }
+
+    // Keeps the current and the previous snapshot; anything older is no longer served
+    private void deleteStaleFiles(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                boolean inUse = file.equals(current.file()) || (previous != null && file.equals(previous.file()));
+                if (!inUse) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * An immutable description of a snapshot file on disk.
+     *
+     * @param file         path of the gzip-compressed NDJSON file
+     * @param size         file size in bytes
+     * @param etag         strong ETag derived from the file contents
+     * @param builtAt      when the file was written
+     * @param productCount number of products in the file
+     */
+    public record Snapshot(Path file, long size, String etag, Instant builtAt, int productCount) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache of the {@code categories} dictionary, which maps every product category to
+ * a small integer key ({@code products.category_id}).
+ *
+ * <p>Category names are matched case- and whitespace-insensitively: the first spelling seen
+ * becomes the canonical name, and products created later with another spelling ("apparel",
+ * " Apparel ") get the same key and the canonical name. Entries never change once created, so
+ * the cache is never invalidated; a miss reads (or creates) the entry in the database.</p>
+ */
+@Component
+public class CategoryDictionary {
+
+    // Creates the entry if needed and returns it; a concurrent insert of the same name is resolved by the select
+    private static final String INSERT_SQL =
+            "INSERT INTO categories (name, normalized_name) VALUES (?, ?) ON CONFLICT (normalized_name) DO NOTHING";
+    private static final String SELECT_SQL = "SELECT id, name FROM categories WHERE normalized_name = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Category> byNormalizedName = new ConcurrentHashMap<>();
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    void init() {
+        // New entries commit on their own, so a rolled-back product create cannot leave a cached key behind
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("plm.categories", byNormalizedName, Map::size)
+                .description("Categories held by the in-process category dictionary")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sets the category key and canonical category name of a product about to be created,
+     * adding the category to the dictionary if it is new. Blank categories are cleared.
+     *
+     * @param product the product to update
+     */
+    public void apply(Product product) {
+        Category category = resolve(product.getCategory());
+        product.setCategoryId(category == null ? null : category.id());
+        product.setCategory(category == null ? null : category.name());
+    }
+
+    /**
+     * Returns the dictionary entry for a category name, creating it if it does not exist.
+     *
+     * @param name the category name in any spelling
+     * @return the entry, or {@code null} if the name is null or blank
+     */
+    public Category resolve(String name) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            return null;
+        }
+        Category cached = byNormalizedName.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+        Category category = newTransaction.execute(status -> {
+            jdbcTemplate.update(INSERT_SQL, name.trim(), normalized);
+            return select(normalized);
+        });
+        byNormalizedName.put(normalized, category);
+        return category;
+    }
+
+    /**
+     * Looks up a category name without creating it (for filters).
+     *
+     * @param name the category name in any spelling
+     * @return the entry, or empty if no product was ever created with this category
+     */
+    public Optional<Category> find(String name) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        Category cached = byNormalizedName.get(normalized);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Category category = select(normalized);
+        if (category != null) {
+            byNormalizedName.put(normalized, category);
+        }
+        return Optional.ofNullable(category);
+    }
+
+    private Category select(String normalized) {
+        List<Category> found = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new Category(rs.getInt("id"), rs.getString("name")), normalized);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * @return the dictionary key of a category name: trimmed and lower-cased, or null if blank
+     */
+    static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One dictionary entry.
+     *
+     * @param id   the integer key stored in {@code products.category_id}
+     * @param name the canonical spelling
+     */
+    public record Category(int id, String name) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.service.CategoryDictionary.Category;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Online migration of existing products to the category dictionary: fills {@code category_id}
+ * for rows created before it existed.
+ *
+ * <p>Works in chunks of {@code plm.categories.migration.batch-size} rows, each in its own short
+ * transaction that skips rows locked by concurrent writers, so the table stays fully usable
+ * while it runs. Rows whose category was spelled differently from the canonical name are
+ * rewritten to it and get a new {@code updated_at}, so read models and other nodes pick up the
+ * change. Once every row is mapped, a run costs one lookup on an empty partial index; it keeps
+ * running to cover rows written by nodes that have not been upgraded yet.</p>
+ */
+@Service
+public class CategoryMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(CategoryMigrator.class);
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id, category FROM products WHERE category_id IS NULL AND category IS NOT NULL"
+                    + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // updated_at only changes when the stored spelling does (expressions see the old row)
+    private static final String UPDATE_SQL =
+            "UPDATE products SET category_id = ?, category = ?,"
+                    + " updated_at = CASE WHEN category IS NOT DISTINCT FROM ? THEN updated_at ELSE ? END"
+                    + " WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.categories.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.categories.migration.batch-size:1000}")
+    private int batchSize;
+
+    private Counter migrated;
+
+    @PostConstruct
+    void registerMetrics() {
+        migrated = Counter.builder("plm.categories.migrated")
+                .description("Products moved to the category dictionary by the online migration")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Maps all remaining products, one chunk per transaction, until none are left.
+     */
+    @Scheduled(initialDelayString = "${plm.categories.migration.initial-delay-ms:30000}",
+               fixedDelayString = "${plm.categories.migration.interval-ms:600000}")
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        int total = 0;
+        try {
+            int moved;
+            do {
+                moved = migrateChunk();
+                total += moved;
+            } while (moved == batchSize);
+        } catch (Exception e) {
+            logger.error("Category migration failed after {} rows: {}", total, e.getMessage(), e);
+        }
+        if (total > 0) {
+            logger.info("Mapped {} products to the category dictionary", total);
+        }
+    }
+
+    private int migrateChunk() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Map<Long, LocalDateTime> respelled = new HashMap<>();
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                Long id = ((Number) row.get("id")).longValue();
+                String category = (String) row.get("category");
+                Category entry = categoryDictionary.resolve(category); // null for blank categories, which are cleared
+                String canonical = entry == null ? null : entry.name();
+                updates.add(new Object[]{entry == null ? null : entry.id(), canonical, canonical, now, id});
+                if (!category.equals(canonical)) {
+                    respelled.put(id, now.toLocalDateTime());
+                }
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            invalidationBus.publishAll(CacheInvalidationBus.PRODUCT, respelled);
+            return rows.size();
+        });
+        int moved = count == null ? 0 : count;
+        migrated.increment(moved);
+        return moved;
+    }
+}
@@ -0,0 +1,49 @@
+package com.retailflow.plm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outbox sink "http": POSTs each batch as an {@code application/x-ndjson} body to
+ * {@code plm.outbox.http.url}. Any 2xx response acknowledges the whole batch; anything else
+ * (or a timeout) fails it and the relay retries.
+ */
+@Component
+public class HttpOutboxSink implements OutboxSink {
+
+    @Value("${plm.outbox.http.url:http://localhost:8089/product-events}")
+    private String url;
+
+    @Value("${plm.outbox.http.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        events.forEach(event -> body.append(event.json()).append('\n'));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + url);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.retailflow.plm.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown by {@link IdempotencyService} when a request cannot be run or replayed for its
+ * {@code Idempotency-Key}: the key is malformed (400), it was already used with a different
+ * request body (422), or the first request with the key is still running on another node (409).
+ */
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyKeyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * @return the HTTP status to answer the request with
+     */
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
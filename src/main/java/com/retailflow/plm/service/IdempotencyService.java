@@ -0,0 +1,330 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs write requests at most once per {@code Idempotency-Key} header and replays the stored
+ * response to retries.
+ *
+ * <p>The first request with a key claims it in the {@code idempotency_keys} table, runs, and
+ * stores its status and body there for {@code plm.idempotency.ttl-hours}. A retry gets the stored
+ * response, marked with an {@code Idempotent-Replayed: true} header. Duplicates that arrive while
+ * the first request is still running wait for its outcome: on this node through a shared future,
+ * on other nodes by polling the table. Recently completed keys are also kept in a bounded
+ * in-memory map, so most retries are answered without a query.</p>
+ *
+ * <p>5xx responses and exceptions are not stored; the claim is released so the client can retry.
+ * A claim left by a node that crashed mid-request can be taken over after
+ * {@code plm.idempotency.in-flight-timeout-ms}.</p>
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    // Claims a new key, or takes over an expired one or an abandoned in-flight claim; 1 row = claimed
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (scope, idempotency_key, fingerprint, claim_token, created_at, expires_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (scope, idempotency_key) DO UPDATE SET"
+                    + " fingerprint = EXCLUDED.fingerprint, claim_token = EXCLUDED.claim_token, status_code = NULL,"
+                    + " response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at"
+                    + " WHERE idempotency_keys.expires_at < EXCLUDED.created_at"
+                    + " OR (idempotency_keys.status_code IS NULL AND idempotency_keys.created_at < ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${plm.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${plm.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${plm.idempotency.in-flight-timeout-ms:60000}")
+    private long inFlightTimeoutMs;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private Map<String, Completed> completed;
+
+    @PostConstruct
+    void init() {
+        // Bounded, insertion-ordered map: the oldest responses are dropped once the limit is reached
+        completed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Runs a request once per key, or returns the response of the request that already ran with it.
+     *
+     * @param scope    method and path of the request, e.g. {@code PUT /api/products/42/status}
+     * @param key      the client's {@code Idempotency-Key}
+     * @param request  the request body; a key reused with a different body is rejected
+     * @param bodyType type of the response body, used to replay stored responses
+     * @param action   runs the request
+     * @return the response of the first request with this key
+     * @throws IdempotencyKeyException if the key is invalid, reused for another request, or still in use
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw reject("invalid", HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+        String localKey = scope + " " + key;
+
+        Completed done = getCompleted(localKey);
+        if (done != null) {
+            return replay(done, fingerprint, bodyType, "replayed");
+        }
+        InFlight mine = new InFlight();
+        InFlight running = inFlight.putIfAbsent(localKey, mine);
+        if (running != null) {
+            return replay(await(running), fingerprint, bodyType, "waited");
+        }
+        try {
+            return run(scope, key, localKey, fingerprint, mine, bodyType, action);
+        } finally {
+            inFlight.remove(localKey, mine);
+        }
+    }
+
+    private <T> ResponseEntity<T> run(String scope, String key, String localKey, String fingerprint, InFlight mine,
+                                      Class<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusHours(ttlHours);
+        boolean claimed = jdbcTemplate.update(CLAIM_SQL, scope, key, fingerprint, token, Timestamp.valueOf(now),
+                Timestamp.valueOf(expiresAt), Timestamp.valueOf(now.minus(Duration.ofMillis(inFlightTimeoutMs)))) == 1;
+        if (!claimed) {
+            // Another node ran or is running this key
+            Completed remote = awaitRemote(scope, key);
+            if (remote == null) {
+                mine.future.completeExceptionally(new IllegalStateException("Request with this key did not complete"));
+                throw reject("conflict", HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+            }
+            remember(localKey, remote);
+            mine.future.complete(remote);
+            return replay(remote, fingerprint, bodyType, "replayed");
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(scope, key, token);
+            mine.future.completeExceptionally(e);
+            throw e;
+        }
+        Completed result = new Completed(fingerprint, response.getStatusCode().value(), toJson(response.getBody()), expiresAt);
+        if (response.getStatusCode().is5xxServerError()) {
+            release(scope, key, token); // Not stored: a retry runs the request again
+        } else {
+            try {
+                jdbcTemplate.update("UPDATE idempotency_keys SET status_code = ?, response_body = ?"
+                                + " WHERE scope = ? AND idempotency_key = ? AND claim_token = ?",
+                        result.status(), result.body(), scope, key, token);
+                remember(localKey, result);
+            } catch (Exception e) {
+                logger.warn("Could not store response for {} {}: {}", HEADER, key, e.getMessage());
+                release(scope, key, token);
+            }
+        }
+        mine.future.complete(result);
+        count("executed");
+        return response;
+    }
+
+    /**
+     * Deletes stored responses whose retention has passed.
+     */
+    @Scheduled(fixedDelayString = "${plm.idempotency.prune-interval-ms:3600000}")
+    public void pruneExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            if (deleted > 0) {
+                logger.info("Pruned {} expired idempotency keys", deleted);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to prune idempotency keys: {}", e.getMessage(), e);
+        }
+    }
+
+    // Waits for the request with the same key running on this node
+    private Completed await(InFlight running) {
+        try {
+            return running.future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            throw reject("conflict", HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("conflict", HttpStatus.CONFLICT, "Interrupted while waiting for the original request");
+        }
+    }
+
+    // Polls the table until the claiming node stores its response; null if it did not within the wait timeout
+    private Completed awaitRemote(String scope, String key) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            List<Completed> rows = jdbcTemplate.query(
+                    "SELECT fingerprint, status_code, response_body, expires_at FROM idempotency_keys"
+                            + " WHERE scope = ? AND idempotency_key = ? AND status_code IS NOT NULL",
+                    (rs, rowNum) -> new Completed(rs.getString("fingerprint"), rs.getInt("status_code"),
+                            rs.getString("response_body"), rs.getTimestamp("expires_at").toLocalDateTime()),
+                    scope, key);
+            if (!rows.isEmpty()) {
+                return rows.get(0);
+            }
+            if (System.nanoTime() >= deadline) {
+                return null;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(Completed completed, String fingerprint, Class<T> bodyType, String outcome) {
+        if (!completed.fingerprint().equals(fingerprint)) {
+            throw reject("mismatch", HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+        }
+        count(outcome);
+        try {
+            T body = completed.body() == null ? null : objectMapper.readValue(completed.body(), bodyType);
+            return ResponseEntity.status(completed.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is not a valid " + bodyType.getSimpleName(), e);
+        }
+    }
+
+    private void release(String scope, String key, String token) {
+        try {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE scope = ? AND idempotency_key = ? AND claim_token = ?",
+                    scope, key, token);
+        } catch (Exception e) {
+            // The claim is taken over once plm.idempotency.in-flight-timeout-ms has passed
+            logger.warn("Could not release {} {}: {}", HEADER, key, e.getMessage());
+        }
+    }
+
+    private Completed getCompleted(String localKey) {
+        synchronized (completed) {
+            Completed done = completed.get(localKey);
+            if (done != null && done.expiresAt().isBefore(LocalDateTime.now())) {
+                completed.remove(localKey);
+                return null;
+            }
+            return done;
+        }
+    }
+
+    private void remember(String localKey, Completed result) {
+        synchronized (completed) {
+            completed.put(localKey, result);
+        }
+    }
+
+    private IdempotencyKeyException reject(String outcome, HttpStatus status, String message) {
+        count(outcome);
+        return new IdempotencyKeyException(status, message);
+    }
+
+    private void count(String outcome) {
+        Counter.builder("plm.idempotency.requests")
+                .description("Requests with an Idempotency-Key by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response body cannot be stored", e);
+        }
+    }
+
+    // SHA-256 of the JSON form of the request body
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    /**
+     * A request with a key that is running on this node; duplicates wait on the future.
+     */
+    private static final class InFlight {
+        private final CompletableFuture<Completed> future = new CompletableFuture<>();
+    }
+
+    /**
+     * The stored outcome of a request.
+     */
+    private record Completed(String fingerprint, int status, String body, LocalDateTime expiresAt) {
+    }
+}
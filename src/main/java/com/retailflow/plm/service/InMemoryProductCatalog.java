@@ -0,0 +1,468 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.model.ProductStatus;
+import com.retailflow.plm.repository.ArchivedProductRepository;
+import com.retailflow.plm.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory, column-oriented copy of the product catalog used to answer
+ * {@link ProductService} reads without a database round trip.
+ *
+ * <p>Instead of one {@link Product} object per row, every attribute lives in its own array:
+ * statuses as enum ordinals, categories as codes into a small dictionary, timestamps as epoch
+ * microseconds and strings as UTF-8 bytes in a shared heap. {@code Product} instances are only
+ * materialized for the rows a request returns.</p>
+ *
+ * <p>The copy is loaded once, refreshed by polling {@code updated_at}, and committed local writes
+ * are applied immediately via {@link ProductChangedEvent}. Enable it with
+ * {@code plm.catalog.in-memory.enabled=true}.</p>
+ */
+@Component
+public class InMemoryProductCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryProductCatalog.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_CATEGORY = -1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    // Approximate heap cost of one HashMap entry with boxed key and value
+    private static final int INDEX_ENTRY_BYTES = 64;
+
+    // Re-read a little before the watermark to tolerate clock skew between nodes and late commits
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+
+    private static final ProductStatus[] STATUSES = ProductStatus.values();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductScanner productScanner;
+
+    @Autowired
+    private ArchivedProductRepository archivedProductRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.catalog.in-memory.enabled:false}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final Map<String, Integer> rowsByProductId = new HashMap<>();
+    private final List<String> categoryDictionary = new ArrayList<>();
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int[] categories = new int[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private long[] updatedAt = new long[INITIAL_CAPACITY];
+    private final StringColumn productIds = new StringColumn(INITIAL_CAPACITY);
+    private final StringColumn names = new StringColumn(INITIAL_CAPACITY);
+    private final StringColumn descriptions = new StringColumn(INITIAL_CAPACITY);
+    private int size;
+
+    private volatile boolean loaded;
+    private volatile boolean resyncRequested;
+    private LocalDateTime watermark;
+    private LocalDateTime archiveWatermark;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("plm.catalog.products", this, catalog -> catalog.size)
+                .description("Products held by the in-memory catalog")
+                .register(meterRegistry);
+        Gauge.builder("plm.catalog.memory", this, InMemoryProductCatalog::estimateMemoryBytes)
+                .description("Approximate heap used by the in-memory catalog")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if reads should be answered from this catalog
+     */
+    public boolean isServing() {
+        return enabled && loaded;
+    }
+
+    /**
+     * Loads the catalog on the first run, then applies rows changed since the last poll.
+     */
+    @Scheduled(fixedDelayString = "${plm.catalog.in-memory.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime pollStart = LocalDateTime.now();
+            if (resyncRequested) {
+                resyncRequested = false;
+                watermark = null; // Re-read everything; updates from other nodes may have been missed
+            }
+            if (watermark == null) {
+                productScanner.forEach(this::apply); // Full load, streamed instead of listed
+            } else {
+                productRepository.findByUpdatedAtGreaterThanEqual(watermark.minus(WATERMARK_OVERLAP)).forEach(this::apply);
+            }
+            // Products archived (possibly by another node) no longer show up in the polled table
+            if (archiveWatermark != null) {
+                archivedProductRepository.findIdsArchivedSince(archiveWatermark.minus(WATERMARK_OVERLAP)).forEach(this::remove);
+            }
+            archiveWatermark = pollStart;
+            if (!loaded) {
+                loaded = true;
+                logger.info("In-memory product catalog loaded with {} products (~{} bytes)",
+                        size, (long) estimateMemoryBytes());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to refresh in-memory product catalog: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(Product product) {
+        upsert(product);
+        if (product.getUpdatedAt() != null && (watermark == null || product.getUpdatedAt().isAfter(watermark))) {
+            watermark = product.getUpdatedAt();
+        }
+    }
+
+    /**
+     * Applies a committed local write right away instead of waiting for the next poll.
+     */
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (isServing()) {
+            upsert(event.getProduct());
+        }
+    }
+
+    /**
+     * Applies writes committed on other nodes, announced through the {@link CacheInvalidationBus}.
+     * Products that no longer exist in the hot table were archived and are dropped.
+     * Runs on the bus's dispatcher thread, not on the thread receiving notifications.
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!isServing()) {
+            return;
+        }
+        if (event.isFullResync()) {
+            resyncRequested = true;
+            return;
+        }
+        List<Long> ids = event.getIds(CacheInvalidationBus.PRODUCT);
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(ids);
+        for (Product product : productRepository.findAllById(ids)) {
+            upsert(product);
+            missing.remove(product.getId());
+        }
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Drops products archived by this node once the archival transaction has committed.
+     */
+    @TransactionalEventListener
+    public void onProductsArchived(ProductsArchivedEvent event) {
+        if (isServing()) {
+            event.getProductIds().forEach(this::remove);
+        }
+    }
+
+    public List<Product> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>(size);
+            for (int row = 0; row < size; row++) {
+                result.add(materialize(row));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Product> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowsById.get(id);
+            return row == null ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Product> findByProductId(String productId) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowsByProductId.get(productId);
+            return row == null ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Product> findByStatus(ProductStatus status) {
+        byte ordinal = (byte) status.ordinal();
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                if (statuses[row] == ordinal) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Product> findByCategory(String category) {
+        lock.readLock().lock();
+        try {
+            Integer code = categoryCodes.get(category);
+            List<Product> result = new ArrayList<>();
+            for (int row = 0; code != null && row < size; row++) {
+                if (categories[row] == code) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowsById.get(product.getId());
+            int row;
+            if (existing != null) {
+                row = existing;
+                String oldProductId = productIds.get(row);
+                if (!oldProductId.equals(product.getProductId())) {
+                    rowsByProductId.remove(oldProductId);
+                }
+            } else {
+                row = size++;
+                ensureCapacity(size);
+                rowsById.put(product.getId(), row);
+            }
+            ids[row] = product.getId();
+            statuses[row] = (byte) product.getStatus().ordinal();
+            categories[row] = encodeCategory(product.getCategory());
+            createdAt[row] = encodeTimestamp(product.getCreatedAt());
+            updatedAt[row] = encodeTimestamp(product.getUpdatedAt());
+            productIds.set(row, product.getProductId());
+            names.set(row, product.getName());
+            descriptions.set(row, product.getDescription());
+            rowsByProductId.put(product.getProductId(), row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removes a row by moving the last row into its place, keeping the columns dense
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer removed = rowsById.remove(id);
+            if (removed == null) {
+                return;
+            }
+            int row = removed;
+            int last = size - 1;
+            rowsByProductId.remove(productIds.get(row));
+            if (row != last) {
+                ids[row] = ids[last];
+                statuses[row] = statuses[last];
+                categories[row] = categories[last];
+                createdAt[row] = createdAt[last];
+                updatedAt[row] = updatedAt[last];
+                productIds.set(row, productIds.get(last));
+                names.set(row, names.get(last));
+                descriptions.set(row, descriptions.get(last));
+                rowsById.put(ids[row], row);
+                rowsByProductId.put(productIds.get(row), row);
+            }
+            productIds.set(last, null);
+            names.set(last, null);
+            descriptions.set(last, null);
+            size = last;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Product materialize(int row) {
+        int category = categories[row];
+        Product product = new Product(productIds.get(row), names.get(row), descriptions.get(row),
+                category == NO_CATEGORY ? null : categoryDictionary.get(category));
+        product.setId(ids[row]);
+        product.setStatus(STATUSES[statuses[row]]);
+        product.setCreatedAt(decodeTimestamp(createdAt[row]));
+        product.setUpdatedAt(decodeTimestamp(updatedAt[row]));
+        return product;
+    }
+
+    private int encodeCategory(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        return categoryCodes.computeIfAbsent(category, value -> {
+            categoryDictionary.add(value);
+            return categoryDictionary.size() - 1;
+        });
+    }
+
+    // Epoch microseconds, matching the precision of a Postgres TIMESTAMP column
+    private static long encodeTimestamp(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NO_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime decodeTimestamp(long micros) {
+        if (micros == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+    }
+
+    private double estimateMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long columns = ids.length * (8L + 1 + 4 + 8 + 8);
+            long strings = productIds.memoryBytes() + names.memoryBytes() + descriptions.memoryBytes();
+            long indexes = (long) (rowsById.size() + rowsByProductId.size()) * INDEX_ENTRY_BYTES;
+            return columns + strings + indexes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A string column stored as UTF-8 bytes in one shared heap array with per-row offsets.
+     * Overwritten values leave garbage in the heap, which is compacted once it outweighs live data.
+     */
+    private static final class StringColumn {
+        private static final int NULL_LENGTH = -1;
+
+        private byte[] heap = new byte[16 * 1024];
+        private int heapSize;
+        private int garbage;
+        private int[] offsets;
+        private int[] lengths;
+
+        StringColumn(int capacity) {
+            offsets = new int[capacity];
+            lengths = new int[capacity];
+        }
+
+        String get(int row) {
+            int length = lengths[row];
+            return length == NULL_LENGTH ? null : new String(heap, offsets[row], length, StandardCharsets.UTF_8);
+        }
+
+        void set(int row, String value) {
+            if (row >= offsets.length) {
+                int capacity = Math.max(row + 1, offsets.length * 2);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+            int oldLength = lengths[row];
+            if (bytes != null && oldLength == bytes.length
+                    && Arrays.equals(heap, offsets[row], offsets[row] + oldLength, bytes, 0, bytes.length)) {
+                return; // unchanged, nothing to write
+            }
+            if (oldLength > 0) {
+                garbage += oldLength;
+            }
+            if (bytes == null) {
+                lengths[row] = NULL_LENGTH;
+                return;
+            }
+            if (heapSize + bytes.length > heap.length) {
+                if (garbage > heapSize / 2) {
+                    compact();
+                }
+                if (heapSize + bytes.length > heap.length) {
+                    heap = Arrays.copyOf(heap, Math.max(heapSize + bytes.length, heap.length * 2));
+                }
+            }
+            System.arraycopy(bytes, 0, heap, heapSize, bytes.length);
+            offsets[row] = heapSize;
+            lengths[row] = bytes.length;
+            heapSize += bytes.length;
+        }
+
+        private void compact() {
+            byte[] compacted = new byte[heap.length];
+            int position = 0;
+            for (int row = 0; row < offsets.length; row++) {
+                int length = lengths[row];
+                if (length > 0) {
+                    System.arraycopy(heap, offsets[row], compacted, position, length);
+                    offsets[row] = position;
+                    position += length;
+                }
+            }
+            heap = compacted;
+            heapSize = position;
+            garbage = 0;
+        }
+
+        long memoryBytes() {
+            return heap.length + offsets.length * 8L;
+        }
+    }
+}
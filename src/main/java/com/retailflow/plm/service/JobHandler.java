@@ -0,0 +1,56 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+
+/**
+ * Runs one type of background job. Implementations are Spring beans and are picked up by
+ * {@link JobQueue} and {@link JobWorker} automatically.
+ *
+ * <p>A job may run more than once (after a failure, or when a worker dies and the visibility
+ * timeout expires), so handlers must be idempotent.</p>
+ */
+public interface JobHandler {
+
+    /**
+     * @return the job type this handler runs, as given when enqueuing
+     */
+    String getType();
+
+    /**
+     * Runs the job. Throwing schedules a retry with backoff until {@link #getMaxAttempts()} is reached.
+     *
+     * @param payload the JSON arguments given when the job was enqueued
+     */
+    void handle(JsonNode payload) throws Exception;
+
+    /**
+     * Checks the arguments when the job is enqueued.
+     *
+     * @throws IllegalArgumentException if the payload is not valid for this job type
+     */
+    default void validate(JsonNode payload) {
+    }
+
+    /**
+     * @return how many jobs of this type may run at once, across all nodes
+     */
+    default int getMaxConcurrency() {
+        return 1;
+    }
+
+    /**
+     * @return how many times a job is attempted before it is marked FAILED
+     */
+    default int getMaxAttempts() {
+        return 5;
+    }
+
+    /**
+     * @return how long a claimed job stays invisible to other workers; extended by heartbeats while it runs
+     */
+    default Duration getVisibilityTimeout() {
+        return Duration.ofMinutes(5);
+    }
+}
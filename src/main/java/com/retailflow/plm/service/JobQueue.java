@@ -0,0 +1,227 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.retailflow.plm.model.Job;
+import com.retailflow.plm.model.JobStatus;
+import com.retailflow.plm.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Durable job queue stored in the {@code jobs} table.
+ *
+ * <ul>
+ *   <li>Jobs are claimed with {@code FOR UPDATE SKIP LOCKED}, so workers on several nodes pull
+ *       from the same table without blocking each other or running a job twice.</li>
+ *   <li>A claimed job is leased until {@code locked_until} (the handler's visibility timeout,
+ *       extended by heartbeats). If the worker dies, the job becomes claimable again.</li>
+ *   <li>Claims for one job type are serialized with a transaction-scoped advisory lock so the
+ *       handler's concurrency limit holds across all nodes.</li>
+ *   <li>Failed attempts are requeued with the delay chosen by the worker; after the last attempt
+ *       the job is marked FAILED.</li>
+ * </ul>
+ *
+ * <p>Times are taken from the database clock ({@code now()}) so nodes with skewed clocks agree on
+ * when a job is due or its lease has expired.</p>
+ */
+@Service
+public class JobQueue {
+
+    // Claims up to N due jobs of one type: queued ones whose delay passed, and running ones whose lease expired
+    private static final String CLAIM_SQL =
+            "UPDATE jobs SET status = 'RUNNING', attempts = attempts + 1, locked_by = ?,"
+                    + " locked_until = now() + (? * INTERVAL '1 millisecond'), updated_at = now()"
+                    + " WHERE id IN ("
+                    + "  SELECT id FROM jobs WHERE type = ?"
+                    + "  AND ((status = 'QUEUED' AND run_after <= now()) OR (status = 'RUNNING' AND locked_until < now()))"
+                    + "  ORDER BY run_after, id LIMIT ? FOR UPDATE SKIP LOCKED)"
+                    + " RETURNING id, type, payload, attempts, max_attempts";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    private final Map<String, JobHandler> handlers;
+
+    @Autowired
+    public JobQueue(List<JobHandler> handlers) {
+        this.handlers = handlers.stream().collect(Collectors.toMap(JobHandler::getType, Function.identity()));
+    }
+
+    /**
+     * @return the registered handlers by job type
+     */
+    public Map<String, JobHandler> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Adds a job to the queue. When called inside another transaction, the job is only
+     * enqueued if that transaction commits.
+     *
+     * @param type     the job type (must have a handler)
+     * @param payload  JSON arguments for the handler, may be null
+     * @param runAfter earliest start time, or null to run as soon as possible
+     * @return the stored job
+     * @throws IllegalArgumentException if the type is unknown or the handler rejects the payload
+     */
+    @Transactional
+    public Job enqueue(String type, JsonNode payload, LocalDateTime runAfter) {
+        JobHandler handler = handlers.get(type);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+        handler.validate(payload);
+        String json = payload == null || payload.isNull() ? null : payload.toString();
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO jobs (type, payload, status, attempts, max_attempts, run_after, created_at, updated_at)"
+                        + " VALUES (?, ?, 'QUEUED', 0, ?, COALESCE(?, now()), now(), now()) RETURNING id",
+                Long.class, type, json, handler.getMaxAttempts(), runAfter == null ? null : Timestamp.valueOf(runAfter));
+        return jobRepository.findById(id).orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Job> getJob(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Lists the most recent jobs, optionally filtered by status and type.
+     */
+    @Transactional(readOnly = true)
+    public List<Job> getRecentJobs(JobStatus status, String type, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        if (status != null && type != null) {
+            return jobRepository.findByStatusAndTypeOrderByIdDesc(status, type, page);
+        }
+        if (status != null) {
+            return jobRepository.findByStatusOrderByIdDesc(status, page);
+        }
+        if (type != null) {
+            return jobRepository.findByTypeOrderByIdDesc(type, page);
+        }
+        return jobRepository.findAllByOrderByIdDesc(page);
+    }
+
+    /**
+     * @return the number of jobs per type and status
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> getCounts() {
+        Map<String, Map<String, Long>> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT type, status, COUNT(*) AS jobs FROM jobs GROUP BY type, status",
+                rs -> {
+                    counts.computeIfAbsent(rs.getString("type"), key -> new TreeMap<>())
+                            .put(rs.getString("status"), rs.getLong("jobs"));
+                });
+        return counts;
+    }
+
+    /**
+     * Claims due jobs of one type, respecting the handler's cluster-wide concurrency limit.
+     *
+     * @param handler the handler whose jobs to claim
+     * @param token   claim token identifying this lease
+     * @param limit   the most jobs this worker can start now
+     * @return the claimed jobs (possibly none)
+     */
+    List<ClaimedJob> claim(JobHandler handler, String token, int limit) {
+        return transactionTemplate.execute(status -> {
+            // Serializes claims for this type across nodes until the transaction ends
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> {
+            }, "plm-jobs:" + handler.getType());
+
+            // Jobs whose lease expired on their last attempt are not retried again
+            jdbcTemplate.update("UPDATE jobs SET status = 'FAILED', locked_by = NULL, locked_until = NULL,"
+                    + " last_error = COALESCE(last_error, 'Visibility timeout expired'), finished_at = now(), updated_at = now()"
+                    + " WHERE type = ? AND status = 'RUNNING' AND locked_until < now() AND attempts >= max_attempts",
+                    handler.getType());
+
+            Integer running = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM jobs WHERE type = ? AND status = 'RUNNING' AND locked_until >= now()",
+                    Integer.class, handler.getType());
+            int available = Math.min(limit, handler.getMaxConcurrency() - (running == null ? 0 : running));
+            if (available <= 0) {
+                return List.of();
+            }
+            return jdbcTemplate.query(CLAIM_SQL,
+                    (rs, rowNum) -> new ClaimedJob(rs.getLong("id"), rs.getString("type"), rs.getString("payload"),
+                            rs.getInt("attempts"), rs.getInt("max_attempts")),
+                    token, handler.getVisibilityTimeout().toMillis(), handler.getType(), available);
+        });
+    }
+
+    /**
+     * Marks a job as succeeded, unless its lease was lost to another worker in the meantime.
+     *
+     * @return false if this worker no longer held the job
+     */
+    boolean complete(long jobId, String token) {
+        return jdbcTemplate.update("UPDATE jobs SET status = 'SUCCEEDED', locked_by = NULL, locked_until = NULL,"
+                + " last_error = NULL, finished_at = now(), updated_at = now()"
+                + " WHERE id = ? AND locked_by = ? AND status = 'RUNNING'", jobId, token) > 0;
+    }
+
+    /**
+     * Records a failed attempt: requeues the job after {@code retryDelayMs}, or marks it FAILED
+     * when it has no attempts left.
+     *
+     * @return true if the job will be retried
+     */
+    boolean fail(ClaimedJob job, String token, String error, long retryDelayMs) {
+        if (job.attempts() >= job.maxAttempts()) {
+            jdbcTemplate.update("UPDATE jobs SET status = 'FAILED', locked_by = NULL, locked_until = NULL,"
+                    + " last_error = ?, finished_at = now(), updated_at = now()"
+                    + " WHERE id = ? AND locked_by = ? AND status = 'RUNNING'", error, job.id(), token);
+            return false;
+        }
+        jdbcTemplate.update("UPDATE jobs SET status = 'QUEUED', locked_by = NULL, locked_until = NULL, last_error = ?,"
+                + " run_after = now() + (? * INTERVAL '1 millisecond'), updated_at = now()"
+                + " WHERE id = ? AND locked_by = ? AND status = 'RUNNING'", error, retryDelayMs, job.id(), token);
+        return true;
+    }
+
+    /**
+     * Extends the leases of jobs still running on this worker.
+     */
+    void heartbeat(Collection<Lease> leases) {
+        if (leases.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE jobs SET locked_until = now() + (? * INTERVAL '1 millisecond'), updated_at = now()"
+                        + " WHERE id = ? AND locked_by = ? AND status = 'RUNNING'",
+                leases.stream().map(lease -> new Object[]{lease.timeoutMs(), lease.jobId(), lease.token()}).toList());
+    }
+
+    /**
+     * A job claimed by this worker; {@code attempts} includes the current attempt.
+     */
+    record ClaimedJob(long id, String type, String payload, int attempts, int maxAttempts) {
+    }
+
+    /**
+     * The lease a worker holds on a running job.
+     */
+    record Lease(long jobId, String token, long timeoutMs) {
+    }
+}
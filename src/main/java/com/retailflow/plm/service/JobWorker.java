@@ -0,0 +1,185 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailflow.plm.service.JobQueue.ClaimedJob;
+import com.retailflow.plm.service.JobQueue.Lease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the {@link JobQueue} and runs claimed jobs on a local thread pool.
+ *
+ * <p>Each job type gets as many local slots as its handler's concurrency limit; the cluster-wide
+ * limit is enforced when claiming. While a job runs, its lease is extended every
+ * {@code plm.jobs.heartbeat-ms}. Failed attempts are retried after an exponential backoff
+ * ({@code backoff-base-ms * 2^(attempt-1)}, capped at {@code backoff-max-ms}, with jitter).</p>
+ */
+@Component
+public class JobWorker {
+    private static final Logger logger = LoggerFactory.getLogger(JobWorker.class);
+
+    // Stored in jobs.last_error; keeps stack-trace-sized messages out of the table
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Autowired
+    private JobQueue jobQueue;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.jobs.backoff-base-ms:10000}")
+    private long backoffBaseMs;
+
+    @Value("${plm.jobs.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    private final Map<String, Semaphore> slots = new HashMap<>();
+    private final Map<Long, Lease> running = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private volatile boolean stopping;
+
+    @PostConstruct
+    void start() {
+        if (!enabled || jobQueue.getHandlers().isEmpty()) {
+            return;
+        }
+        int threads = 0;
+        for (JobHandler handler : jobQueue.getHandlers().values()) {
+            slots.put(handler.getType(), new Semaphore(handler.getMaxConcurrency()));
+            threads += handler.getMaxConcurrency();
+        }
+        executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("job-worker-"));
+        Gauge.builder("plm.jobs.running", running, Map::size)
+                .description("Jobs currently running on this node")
+                .register(meterRegistry);
+        logger.info("Job worker started for types {} with {} threads", slots.keySet(), threads);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        stopping = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            // Unfinished jobs are picked up by another worker once their lease expires
+            logger.warn("{} jobs still running at shutdown", running.size());
+        }
+    }
+
+    /**
+     * Claims due jobs for every type that has a free local slot.
+     */
+    @Scheduled(fixedDelayString = "${plm.jobs.poll-ms:1000}")
+    public void poll() {
+        if (executor == null || stopping) {
+            return;
+        }
+        for (JobHandler handler : jobQueue.getHandlers().values()) {
+            Semaphore slot = slots.get(handler.getType());
+            int free = slot.availablePermits();
+            if (free == 0 || !slot.tryAcquire(free)) {
+                continue;
+            }
+            int started = 0;
+            try {
+                String token = UUID.randomUUID().toString();
+                List<ClaimedJob> claimed = jobQueue.claim(handler, token, free);
+                for (ClaimedJob job : claimed) {
+                    running.put(job.id(), new Lease(job.id(), token, handler.getVisibilityTimeout().toMillis()));
+                    executor.execute(() -> run(handler, job, token, slot));
+                    started++;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to claim {} jobs: {}", handler.getType(), e.getMessage(), e);
+            } finally {
+                slot.release(free - started);
+            }
+        }
+    }
+
+    /**
+     * Extends the leases of the jobs running on this node so they are not reclaimed while in progress.
+     */
+    @Scheduled(fixedDelayString = "${plm.jobs.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        try {
+            jobQueue.heartbeat(List.copyOf(running.values()));
+        } catch (Exception e) {
+            logger.error("Failed to extend job leases: {}", e.getMessage(), e);
+        }
+    }
+
+    private void run(JobHandler handler, ClaimedJob job, String token, Semaphore slot) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            JsonNode payload = job.payload() == null ? objectMapper.nullNode() : objectMapper.readTree(job.payload());
+            handler.handle(payload);
+            outcome = jobQueue.complete(job.id(), token) ? "succeeded" : "lease-lost";
+            logger.info("Job {} ({}) finished: {}", job.id(), job.type(), outcome);
+        } catch (Exception e) {
+            long delay = backoff(job.attempts());
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            boolean retry = jobQueue.fail(job, token,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, delay);
+            outcome = retry ? "retried" : "failed";
+            logger.warn("Job {} ({}) attempt {}/{} failed{}: {}", job.id(), job.type(), job.attempts(), job.maxAttempts(),
+                    retry ? ", retrying in " + delay + " ms" : "", e.getMessage(), e);
+        } finally {
+            running.remove(job.id());
+            slot.release();
+        }
+        sample.stop(Timer.builder("plm.jobs.duration")
+                .description("Time spent running jobs")
+                .tag("type", job.type())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        Counter.builder("plm.jobs.completed")
+                .description("Job attempts by outcome")
+                .tag("type", job.type())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private long backoff(int attempt) {
+        long delay = backoffBaseMs << Math.min(attempt - 1, 30);
+        delay = Math.min(delay <= 0 ? backoffMaxMs : delay, backoffMaxMs);
+        // +/- 20% jitter so retries of jobs that failed together do not all return at once
+        return (long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+}
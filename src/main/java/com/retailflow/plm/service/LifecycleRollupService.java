@@ -0,0 +1,226 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.model.ProductStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Records product status transitions and keeps incremental lifecycle rollups up to date.
+ *
+ * <p>Every transition (including the initial status on creation) is written to
+ * {@code product_status_history} and, in the same transaction, added to two rollup tables:</p>
+ * <ul>
+ *   <li>{@code lifecycle_daily_transitions}: number of products entering each status per day and category.</li>
+ *   <li>{@code lifecycle_lead_time_daily}: time spent in the stage that was left, per day it was left
+ *       and category, in exponential hour buckets (bucket {@code b} holds lead times of
+ *       {@code [2^b - 1, 2^(b+1) - 1)} hours).</li>
+ * </ul>
+ *
+ * <p>Transitions of one product are serialized by the row lock its caller takes, so each one
+ * measures its lead time from the transition committed before it.</p>
+ *
+ * <p>Reports are read from the rollups only, so their cost depends on the number of days and
+ * stages requested, not on the size of the history table.</p>
+ */
+@Service
+@Transactional // Joins the caller's transaction so the history row and rollups commit with the status change
+public class LifecycleRollupService {
+
+    // Rollup key used for products without a category
+    private static final int NO_CATEGORY = 0;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    /**
+     * Records newly created products as transitions into their initial status.
+     *
+     * @param products the created products (with ids and creation timestamps)
+     */
+    public void recordCreated(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        String changedBy = currentUsername();
+        List<Object[]> historyRows = new ArrayList<>(products.size());
+        Map<List<Object>, Integer> dailyCounts = new LinkedHashMap<>();
+        for (Product product : products) {
+            LocalDateTime at = product.getCreatedAt() != null ? product.getCreatedAt() : LocalDateTime.now();
+            historyRows.add(new Object[]{product.getId(), null, product.getStatus().name(), changedBy, Timestamp.valueOf(at)});
+            dailyCounts.merge(List.of(Date.valueOf(at.toLocalDate()), product.getStatus().name(), categoryKey(product)), 1, Integer::sum);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product_status_history (product_id, previous_status, new_status, changed_by, changed_at) "
+                + "VALUES (?, ?, ?, ?, ?)", historyRows);
+        List<Object[]> dailyRows = new ArrayList<>(dailyCounts.size());
+        dailyCounts.forEach((key, count) -> dailyRows.add(new Object[]{key.get(0), key.get(1), key.get(2), count}));
+        jdbcTemplate.batchUpdate(DAILY_UPSERT, dailyRows);
+    }
+
+    /**
+     * Records a status change of an existing product and updates the rollups.
+     *
+     * Callers must hold the product's row lock (see {@link com.retailflow.plm.repository.ProductRepository#findByIdForUpdate}),
+     * so concurrent transitions of one product are recorded one after the other.
+     *
+     * @param product        the product after the change (new status already set)
+     * @param previousStatus the status the product left
+     */
+    public void recordTransition(Product product, ProductStatus previousStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        int category = categoryKey(product);
+
+        // When did the product enter the stage it is leaving? Latest history row, else its creation time
+        Timestamp lastChange = jdbcTemplate.queryForObject(
+                "SELECT MAX(changed_at) FROM product_status_history WHERE product_id = ?", Timestamp.class, product.getId());
+        LocalDateTime enteredAt = lastChange != null ? lastChange.toLocalDateTime() : product.getCreatedAt();
+
+        jdbcTemplate.update("INSERT INTO product_status_history (product_id, previous_status, new_status, changed_by, changed_at) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                product.getId(), previousStatus.name(), product.getStatus().name(), currentUsername(), Timestamp.valueOf(now));
+        jdbcTemplate.update(DAILY_UPSERT, Date.valueOf(now.toLocalDate()), product.getStatus().name(), category, 1);
+
+        if (enteredAt != null) {
+            long seconds = Math.max(0, Duration.between(enteredAt, now).getSeconds());
+            jdbcTemplate.update("INSERT INTO lifecycle_lead_time_daily (day, category_id, status, bucket, transitions, total_seconds) "
+                            + "VALUES (?, ?, ?, ?, 1, ?) ON CONFLICT (day, category_id, status, bucket) DO UPDATE SET "
+                            + "transitions = lifecycle_lead_time_daily.transitions + 1, "
+                            + "total_seconds = lifecycle_lead_time_daily.total_seconds + EXCLUDED.total_seconds",
+                    Date.valueOf(now.toLocalDate()), category, previousStatus.name(), bucketFor(seconds), seconds);
+        }
+    }
+
+    /**
+     * Builds the lifecycle report for a day range from the rollup tables.
+     *
+     * @param from     first day (inclusive)
+     * @param to       last day (inclusive)
+     * @param requestedCategory restrict to one category (matched case-insensitively), or {@code null} for all
+     * @return daily and weekly transition counts per status, and lead-time histograms per category and stage
+     *         of the transitions made in the range
+     */
+    @Transactional(readOnly = true)
+    public LifecycleReport getReport(LocalDate from, LocalDate to, String requestedCategory) {
+        String category = null;
+        String categoryFilter = "";
+        Object[] rangeArgs = new Object[]{Date.valueOf(from), Date.valueOf(to)};
+        if (requestedCategory != null && !requestedCategory.isBlank()) {
+            Optional<CategoryDictionary.Category> entry = categoryDictionary.find(requestedCategory);
+            if (entry.isEmpty()) {
+                // No product was ever created in this category, so there is nothing to report
+                return new LifecycleReport(from, to, requestedCategory.trim(), List.of(), List.of(), List.of());
+            }
+            category = entry.get().name();
+            categoryFilter = " AND category_id = ?";
+            rangeArgs = new Object[]{Date.valueOf(from), Date.valueOf(to), entry.get().id()};
+        }
+
+        List<StageCount> daily = jdbcTemplate.query(
+                "SELECT day, status, SUM(transitions) AS transitions FROM lifecycle_daily_transitions "
+                        + "WHERE day BETWEEN ? AND ?" + categoryFilter + " GROUP BY day, status ORDER BY day, status",
+                (rs, rowNum) -> new StageCount(rs.getDate("day").toLocalDate(), rs.getString("status"), rs.getLong("transitions")),
+                rangeArgs);
+
+        List<StageCount> weekly = jdbcTemplate.query(
+                "SELECT CAST(date_trunc('week', day) AS DATE) AS week, status, SUM(transitions) AS transitions "
+                        + "FROM lifecycle_daily_transitions WHERE day BETWEEN ? AND ?" + categoryFilter
+                        + " GROUP BY week, status ORDER BY week, status",
+                (rs, rowNum) -> new StageCount(rs.getDate("week").toLocalDate(), rs.getString("status"), rs.getLong("transitions")),
+                rangeArgs);
+
+        Map<List<Object>, LeadTimeHistogram> histograms = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT h.category_id, c.name AS category, h.status, h.bucket,"
+                        + " SUM(h.transitions) AS transitions, SUM(h.total_seconds) AS total_seconds"
+                        + " FROM lifecycle_lead_time_daily h LEFT JOIN categories c ON c.id = h.category_id"
+                        + " WHERE h.day BETWEEN ? AND ?" + (category != null ? " AND h.category_id = ?" : "")
+                        + " GROUP BY h.category_id, c.name, h.status, h.bucket ORDER BY c.name NULLS FIRST, h.status, h.bucket",
+                rs -> {
+                    String rowCategory = rs.getString("category");
+                    String stage = rs.getString("status");
+                    LeadTimeHistogram histogram = histograms.computeIfAbsent(List.of(rs.getInt("category_id"), stage),
+                            key -> new LeadTimeHistogram(rowCategory, stage, new ArrayList<>()));
+                    int bucket = rs.getInt("bucket");
+                    histogram.buckets().add(new LeadTimeBucket((1L << bucket) - 1, (1L << (bucket + 1)) - 1,
+                            rs.getLong("transitions"), rs.getLong("total_seconds")));
+                },
+                rangeArgs);
+
+        return new LifecycleReport(from, to, category, daily, weekly, new ArrayList<>(histograms.values()));
+    }
+
+    private static final String DAILY_UPSERT =
+            "INSERT INTO lifecycle_daily_transitions (day, status, category_id, transitions) VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (day, status, category_id) DO UPDATE SET "
+                    + "transitions = lifecycle_daily_transitions.transitions + EXCLUDED.transitions";
+
+    // floor(log2(hours + 1)): 0 = under 1h, 1 = 1-3h, 2 = 3-7h, ... up to years
+    static int bucketFor(long seconds) {
+        long hours = seconds / 3600;
+        return 63 - Long.numberOfLeadingZeros(hours + 1);
+    }
+
+    // Products created before the category dictionary may not be mapped yet; their key is resolved here
+    private int categoryKey(Product product) {
+        if (product.getCategoryId() != null) {
+            return product.getCategoryId();
+        }
+        CategoryDictionary.Category category = categoryDictionary.resolve(product.getCategory());
+        return category != null ? category.id() : NO_CATEGORY;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    /**
+     * Lifecycle report for a day range.
+     */
+    public record LifecycleReport(LocalDate from,
+                                  LocalDate to,
+                                  String category,
+                                  List<StageCount> daily,
+                                  List<StageCount> weekly,
+                                  List<LeadTimeHistogram> leadTimes) {
+    }
+
+    /**
+     * Number of products that entered {@code status} in the period starting at {@code period}
+     * (a day, or the Monday of a week).
+     */
+    public record StageCount(LocalDate period, String status, long transitions) {
+    }
+
+    /**
+     * Distribution of time spent in {@code stage} before moving on, for one category,
+     * over the transitions out of the stage made in the report's range.
+     */
+    public record LeadTimeHistogram(String category, String stage, List<LeadTimeBucket> buckets) {
+    }
+
+    /**
+     * Lead times in {@code [fromHours, toHours)}: how many transitions, and their summed duration.
+     */
+    public record LeadTimeBucket(long fromHours, long toHours, long transitions, long totalSeconds) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.retailflow.plm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Outbox sink "file": appends events as NDJSON (one JSON object per line) to a local file,
+ * for consumers that tail or ship files. A batch is flushed to disk before it counts as delivered.
+ */
+@Component
+public class NdjsonFileOutboxSink implements OutboxSink {
+
+    @Value("${plm.outbox.file.path:${java.io.tmpdir}/retailflow-plm/outbox/product-events.ndjson}")
+    private String path;
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxEvent> events) throws IOException {
+        Path file = Paths.get(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        StringBuilder lines = new StringBuilder();
+        events.forEach(event -> lines.append(event.json()).append('\n'));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
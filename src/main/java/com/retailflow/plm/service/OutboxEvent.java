@@ -0,0 +1,16 @@
+package com.retailflow.plm.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * One product event read from the {@code outbox_events} table.
+ *
+ * @param id         outbox sequence number; increases with every event and identifies it for deduplication
+ * @param type       {@code product.created} or {@code product.status-changed}
+ * @param productId  database ID of the product
+ * @param occurredAt when the write that produced the event happened
+ * @param json       the event as one line of JSON ({@code eventId}, {@code type}, {@code productId},
+ *                   {@code occurredAt} and {@code data})
+ */
+public record OutboxEvent(long id, String type, long productId, LocalDateTime occurredAt, String json) {
+}
@@ -0,0 +1,264 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the events written by {@link ProductOutbox} to the configured {@link OutboxSink}.
+ *
+ * <p>Events are read in batches of {@code plm.outbox.batch-size}, in {@code id} order, and only one
+ * node relays at a time: it holds a lease row ({@code outbox_relay_lease}) that it renews before
+ * every batch and that another node takes over once {@code plm.outbox.lease-ms} has passed. No
+ * transaction or lock is held while the sink runs. A batch is marked delivered after the sink
+ * accepted it, which gives at-least-once delivery. A failed batch (including an event that cannot
+ * be converted) is retried with exponential backoff ({@code backoff-base-ms * 2^(attempt-1)},
+ * capped at {@code backoff-max-ms}); later events wait behind it. Delivered rows are pruned after
+ * {@code plm.outbox.retention-hours}.</p>
+ *
+ * <p>Ids are assigned when an event is inserted, not when its transaction commits, so events of
+ * different products can reach the sink in a different order than their commits. Events of one
+ * product are always delivered in order: its writes lock the product row, so a later event's id
+ * is assigned only after the earlier one committed.</p>
+ */
+@Service
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Stored in outbox_events.last_error; keeps stack-trace-sized messages out of the table
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final int PRUNE_CHUNK_SIZE = 10000;
+
+    // Identifies this JVM as the holder of the relay lease
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private List<OutboxSink> sinks;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.outbox.sink:file}")
+    private String sinkName;
+
+    @Value("${plm.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${plm.outbox.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    @Value("${plm.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${plm.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${plm.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    private OutboxSink sink;
+    private Counter delivered;
+    private Counter failures;
+    private final AtomicLong lagMs = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        sink = sinks.stream().filter(candidate -> candidate.getName().equals(sinkName)).findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown plm.outbox.sink: " + sinkName));
+        delivered = Counter.builder("plm.outbox.delivered")
+                .description("Product events delivered to the outbox sink")
+                .tag("sink", sinkName)
+                .register(meterRegistry);
+        failures = Counter.builder("plm.outbox.failures")
+                .description("Failed outbox batch deliveries")
+                .tag("sink", sinkName)
+                .register(meterRegistry);
+        Gauge.builder("plm.outbox.lag", lagMs, AtomicLong::get)
+                .description("Age of the oldest undelivered product event at the last relay run")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        logger.info("Outbox relay delivering product events to the {} sink", sinkName);
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Lets another node take over right away instead of after the lease expires
+            jdbcTemplate.update("UPDATE outbox_relay_lease SET locked_by = NULL, locked_until = NULL"
+                    + " WHERE id = 1 AND locked_by = ?", NODE_ID);
+        } catch (Exception e) {
+            logger.warn("Releasing the outbox relay lease failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delivers pending events, one batch at a time, until none are left, a batch fails or the lease is held elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${plm.outbox.poll-ms:1000}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int count;
+            do {
+                count = relayBatch();
+            } while (count == batchSize);
+        } catch (Exception e) {
+            logger.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes delivered events older than the retention period, in chunks.
+     */
+    @Scheduled(fixedDelayString = "${plm.outbox.prune-interval-ms:3600000}")
+    public void pruneDelivered() {
+        if (!enabled) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours));
+        int total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update("DELETE FROM outbox_events WHERE id IN (SELECT id FROM outbox_events"
+                        + " WHERE delivered_at < ? ORDER BY id LIMIT ?)", cutoff, PRUNE_CHUNK_SIZE);
+                total += deleted;
+            } while (deleted == PRUNE_CHUNK_SIZE);
+        } catch (Exception e) {
+            logger.error("Pruning the outbox failed after {} rows: {}", total, e.getMessage(), e);
+        }
+        if (total > 0) {
+            logger.info("Pruned {} delivered outbox events", total);
+        }
+    }
+
+    private int relayBatch() {
+        if (!renewLease()) {
+            return 0; // Another node is relaying
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingEvent> pending = jdbcTemplate.query(
+                "SELECT id, event_type, product_id, payload, created_at, attempts, next_attempt_at FROM outbox_events"
+                        + " WHERE delivered_at IS NULL ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new PendingEvent(rs.getLong("id"), rs.getString("event_type"), rs.getLong("product_id"),
+                        rs.getString("payload"), rs.getTimestamp("created_at").toLocalDateTime(), rs.getInt("attempts"),
+                        rs.getTimestamp("next_attempt_at") == null ? null : rs.getTimestamp("next_attempt_at").toLocalDateTime()),
+                batchSize);
+        if (pending.isEmpty()) {
+            lagMs.set(0);
+            return 0;
+        }
+        PendingEvent head = pending.get(0);
+        lagMs.set(Math.max(0, Duration.between(head.createdAt(), now).toMillis()));
+        if (head.nextAttemptAt() != null && head.nextAttemptAt().isAfter(now)) {
+            return 0; // Backing off after a failed delivery
+        }
+        Long[] ids = pending.stream().map(PendingEvent::id).toArray(Long[]::new);
+        try {
+            sink.deliver(pending.stream().map(this::toEvent).toList());
+        } catch (Exception e) {
+            long delay = backoff(head.attempts() + 1);
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            markFailed(ids, now.plus(Duration.ofMillis(delay)),
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            failures.increment();
+            logger.warn("Delivering {} outbox events to {} failed (attempt {}), retrying in {} ms: {}",
+                    ids.length, sinkName, head.attempts() + 1, delay, e.getMessage());
+            return 0;
+        }
+        markDelivered(ids, LocalDateTime.now());
+        delivered.increment(ids.length);
+        return ids.length;
+    }
+
+    // Takes or extends the relay lease; false while another node holds an unexpired one
+    private boolean renewLease() {
+        return jdbcTemplate.update("UPDATE outbox_relay_lease SET locked_by = ?,"
+                + " locked_until = now() + (? * INTERVAL '1 millisecond')"
+                + " WHERE id = 1 AND (locked_by = ? OR locked_by IS NULL OR locked_until < now())",
+                NODE_ID, leaseMs, NODE_ID) == 1;
+    }
+
+    private OutboxEvent toEvent(PendingEvent pending) {
+        try {
+            ObjectNode envelope = objectMapper.createObjectNode();
+            envelope.put("eventId", pending.id());
+            envelope.put("type", pending.type());
+            envelope.put("productId", pending.productId());
+            envelope.set("occurredAt", objectMapper.valueToTree(pending.createdAt()));
+            envelope.set("data", objectMapper.readTree(pending.payload()));
+            return new OutboxEvent(pending.id(), pending.type(), pending.productId(), pending.createdAt(),
+                    objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid payload in outbox event " + pending.id(), e);
+        }
+    }
+
+    private void markFailed(Long[] ids, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement statement = con.prepareStatement("UPDATE outbox_events SET attempts = attempts + 1,"
+                    + " next_attempt_at = ?, last_error = ? WHERE id = ANY(?)");
+            statement.setTimestamp(1, Timestamp.valueOf(nextAttemptAt));
+            statement.setString(2, error);
+            statement.setArray(3, con.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+
+    private void markDelivered(Long[] ids, LocalDateTime deliveredAt) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement statement = con.prepareStatement("UPDATE outbox_events SET delivered_at = ? WHERE id = ANY(?)");
+            statement.setTimestamp(1, Timestamp.valueOf(deliveredAt));
+            statement.setArray(2, con.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+
+    private long backoff(int attempt) {
+        long delay = backoffBaseMs << Math.min(attempt - 1, 30);
+        return Math.min(delay <= 0 ? backoffMaxMs : delay, backoffMaxMs);
+    }
+
+    /**
+     * An undelivered row of the outbox table.
+     */
+    private record PendingEvent(long id, String type, long productId, String payload, LocalDateTime createdAt,
+                                int attempts, LocalDateTime nextAttemptAt) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.retailflow.plm.service;
+
+import java.util.List;
+
+/**
+ * Destination of the product events relayed from the outbox by {@link OutboxRelay}.
+ * Implementations are Spring beans; the one named by {@code plm.outbox.sink} is used.
+ *
+ * <p>Delivery is at least once: a batch is delivered again if the relay fails before recording
+ * it as delivered, so receivers should deduplicate on {@link OutboxEvent#id()}.</p>
+ */
+public interface OutboxSink {
+
+    /**
+     * @return the sink name used in {@code plm.outbox.sink}
+     */
+    String getName();
+
+    /**
+     * Delivers a batch of events, in order. Throwing marks the whole batch as failed; it is
+     * retried with backoff and no later event is delivered before it.
+     *
+     * @param events the events, oldest first
+     */
+    void deliver(List<OutboxEvent> events) throws Exception;
+}
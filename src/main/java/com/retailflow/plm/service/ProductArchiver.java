@@ -0,0 +1,148 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.ProductStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves products that have been {@code DISCONTINUED} for longer than
+ * {@code plm.archive.discontinued-days} from {@code products} to {@code products_archive}.
+ *
+ * <p>Runs in the background in chunks of {@code plm.archive.batch-size} rows, each in its own
+ * short transaction: one statement deletes the chunk from the hot table and inserts it into the
+ * archive. Rows locked by concurrent writers are skipped and picked up by a later run, and several
+ * nodes can run the job at once without archiving a row twice.</p>
+ *
+ * <p>The hot table (and everything derived from it: list endpoints, facets, the in-memory catalog
+ * and the snapshot) then only holds products still in daily use; archived ones stay reachable
+ * through the {@code includeArchived} read paths of {@link ProductService}.</p>
+ */
+@Service
+public class ProductArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(ProductArchiver.class);
+
+    // Moves one chunk: picks the oldest eligible rows, deletes them and copies them to the archive
+    private static final String ARCHIVE_CHUNK_SQL =
+            "WITH moved AS ("
+                    + " DELETE FROM products WHERE id IN ("
+                    + "  SELECT id FROM products WHERE status = ? AND updated_at < ?"
+                    + "  ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)"
+                    + " RETURNING id, product_id, name, description, category, status, created_at, updated_at)"
+                    + " INSERT INTO products_archive"
+                    + " (id, product_id, name, description, category, status, created_at, updated_at, archived_at)"
+                    + " SELECT id, product_id, name, description, category, status, created_at, updated_at, ? FROM moved"
+                    + " RETURNING id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.archive.discontinued-days:180}")
+    private int discontinuedDays;
+
+    @Value("${plm.archive.batch-size:500}")
+    private int batchSize;
+
+    private Counter archived;
+
+    @PostConstruct
+    void registerMetrics() {
+        archived = Counter.builder("plm.product.archived")
+                .description("Products moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archives all eligible products, one chunk per transaction, until none are left.
+     * Failures are logged; the next run picks up where this one stopped.
+     */
+    @Scheduled(initialDelayString = "${plm.archive.initial-delay-ms:60000}",
+               fixedDelayString = "${plm.archive.interval-ms:3600000}")
+    public void archiveDiscontinued() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveDiscontinuedOrThrow();
+        } catch (Exception e) {
+            logger.error("Archiving discontinued products failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archives all eligible products like the scheduled run, but reports failures to the caller.
+     *
+     * @return the number of products archived
+     * @throws IllegalStateException if archiving is disabled or a chunk failed (chunks committed
+     *                               before the failure stay archived)
+     */
+    public int archiveDiscontinuedOrThrow() {
+        if (!enabled) {
+            throw new IllegalStateException("Archiving is disabled (plm.archive.enabled=false)");
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(discontinuedDays);
+        int total = 0;
+        try {
+            int moved;
+            do {
+                moved = archiveChunk(cutoff);
+                total += moved;
+            } while (moved == batchSize);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Archiving failed after " + total + " rows: " + e.getMessage(), e);
+        }
+        if (total > 0) {
+            logger.info("Archived {} products discontinued before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            LocalDateTime archivedAt = LocalDateTime.now();
+            List<Long> movedIds = jdbcTemplate.queryForList(ARCHIVE_CHUNK_SQL, Long.class,
+                    ProductStatus.DISCONTINUED.name(), Timestamp.valueOf(cutoff), batchSize,
+                    Timestamp.valueOf(archivedAt));
+            if (!movedIds.isEmpty()) {
+                // Published inside the transaction so listeners see it after commit
+                eventPublisher.publishEvent(new ProductsArchivedEvent(movedIds));
+                invalidationBus.publishAll(CacheInvalidationBus.PRODUCT, movedIds.stream()
+                        .collect(Collectors.toMap(Function.identity(), id -> archivedAt)));
+            }
+            return movedIds;
+        });
+        int moved = ids == null ? 0 : ids.size();
+        archived.increment(moved);
+        return moved;
+    }
+}
@@ -0,0 +1,25 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+
+/**
+ * Published by {@link ProductService} whenever a product is created or updated.
+ *
+ * <p>Listeners that keep derived read models (in-memory catalog, indexes) should use
+ * {@code @TransactionalEventListener} so they only see changes that were committed.</p>
+ */
+public class ProductChangedEvent {
+
+    private final Product product;
+
+    public ProductChangedEvent(Product product) {
+        this.product = product;
+    }
+
+    /**
+     * @return the product state as saved by the write
+     */
+    public Product getProduct() {
+        return product;
+    }
+}
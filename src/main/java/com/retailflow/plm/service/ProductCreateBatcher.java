@@ -0,0 +1,398 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.model.ProductStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Group-commit write path for high-rate product creation.
+ *
+ * <p>Callers enqueue products and get a tracking id plus a future. A single committer thread
+ * collects concurrent creates until {@code max-batch-size} is reached or {@code max-wait-ms}
+ * has passed, then writes the whole batch with one multi-row
+ * {@code INSERT ... ON CONFLICT (product_id) DO NOTHING RETURNING} in one transaction, so
+ * many creates share one commit (and one fsync). Rows that the insert did not return
+ * collided with an existing {@code product_id} and are reported as duplicates.</p>
+ *
+ * <p>Each create gets its own result: rows the database would reject (missing or over-long
+ * columns) are reported as INVALID before the insert, and if the batch insert still fails, its
+ * rows are retried one per transaction so only the offending create fails.</p>
+ *
+ * <p>The IDENTITY id generation on {@link Product} disables Hibernate's JDBC insert batching,
+ * which is why this path writes through {@link JdbcTemplate} instead of the repository.</p>
+ */
+@Service
+public class ProductCreateBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCreateBatcher.class);
+
+    // Postgres allows at most 32767 bind parameters per statement (8 per row here)
+    private static final int MAX_ROWS_PER_STATEMENT = 4000;
+
+    // Column sizes in schema.sql
+    private static final int MAX_PRODUCT_ID_LENGTH = 50;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_CATEGORY_LENGTH = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LifecycleRollupService lifecycleRollupService;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private ProductOutbox productOutbox;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.group-commit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${plm.group-commit.max-wait-ms:10}")
+    private long maxWaitMs;
+
+    @Value("${plm.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${plm.group-commit.tracked-results:10000}")
+    private int trackedResults;
+
+    private BlockingQueue<PendingCreate> queue;
+    private Map<String, PendingCreate> tracked;
+    private DistributionSummary batchSizes;
+    private Thread committer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Bounded, insertion-ordered map: the oldest results are dropped once the limit is reached
+        tracked = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PendingCreate> eldest) {
+                return size() > trackedResults;
+            }
+        };
+        batchSizes = DistributionSummary.builder("plm.product.group-commit.batch.size")
+                .description("Products written per group commit")
+                .register(meterRegistry);
+        running = true;
+        committer = new Thread(this::runCommitter, "product-group-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (committer == null) {
+            return;
+        }
+        running = false;
+        committer.interrupt();
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingCreate> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.forEach(pending -> pending.complete(CreateResult.failed(pending.trackingId, "Server is shutting down")));
+    }
+
+    /**
+     * @return true if the group-commit path accepts requests
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a product for the next group commit.
+     *
+     * @param product the product to create
+     * @return the pending create, holding the tracking id and a future for the outcome
+     * @throws IllegalStateException if the queue is full (callers should back off and retry)
+     */
+    public PendingCreate submit(Product product) {
+        PendingCreate pending = new PendingCreate(UUID.randomUUID().toString(), product);
+        synchronized (tracked) {
+            tracked.put(pending.trackingId, pending);
+        }
+        if (!queue.offer(pending)) {
+            synchronized (tracked) {
+                tracked.remove(pending.trackingId);
+            }
+            throw new IllegalStateException("Product create queue is full");
+        }
+        return pending;
+    }
+
+    /**
+     * Looks up the outcome of a previously submitted create.
+     *
+     * @param trackingId the id returned by {@link #submit(Product)}
+     * @return the current result (PENDING until committed), or empty if unknown or expired
+     */
+    public Optional<CreateResult> getResult(String trackingId) {
+        PendingCreate pending;
+        synchronized (tracked) {
+            pending = tracked.get(trackingId);
+        }
+        if (pending == null) {
+            return Optional.empty();
+        }
+        return Optional.of(pending.future.isDone()
+                ? pending.future.join()
+                : new CreateResult(trackingId, CreateStatus.PENDING, null, null));
+    }
+
+    private void runCommitter() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingCreate first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                batch.forEach(pending -> pending.complete(CreateResult.failed(pending.trackingId, "Server is shutting down")));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingCreate> batch) {
+        batchSizes.record(batch.size());
+
+        // A productId repeated inside the batch: the first one wins, later ones are duplicates
+        Map<String, PendingCreate> unique = new LinkedHashMap<>();
+        for (PendingCreate pending : batch) {
+            String invalid = validate(pending.product);
+            if (invalid != null) {
+                pending.complete(new CreateResult(pending.trackingId, CreateStatus.INVALID, null, invalid));
+            } else if (unique.putIfAbsent(pending.product.getProductId(), pending) != null) {
+                pending.complete(CreateResult.duplicate(pending.trackingId, pending.product.getProductId()));
+            }
+        }
+
+        List<PendingCreate> rows = new ArrayList<>(unique.size());
+        for (PendingCreate pending : unique.values()) {
+            try {
+                categoryDictionary.apply(pending.product);
+                rows.add(pending);
+            } catch (Exception e) {
+                logger.warn("Resolving category of product {} failed: {}", pending.product.getProductId(), e.getMessage());
+                pending.complete(CreateResult.failed(pending.trackingId, "Category could not be resolved"));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Product> inserted = write(rows);
+            completeWritten(rows, inserted);
+            logger.info("Group commit wrote {} of {} queued products", inserted.size(), batch.size());
+        } catch (Exception e) {
+            // One bad row fails the whole statement; retry one by one so only that row's caller fails
+            logger.warn("Group commit of {} products failed, retrying them one by one: {}", rows.size(), e.getMessage());
+            int written = 0;
+            for (PendingCreate pending : rows) {
+                try {
+                    Map<String, Product> inserted = write(List.of(pending));
+                    completeWritten(List.of(pending), inserted);
+                    written += inserted.size();
+                } catch (Exception rowError) {
+                    logger.error("Creating product {} failed: {}", pending.product.getProductId(), rowError.getMessage(), rowError);
+                    pending.complete(CreateResult.failed(pending.trackingId, "Insert failed"));
+                }
+            }
+            logger.info("Group commit wrote {} of {} queued products one by one", written, batch.size());
+        }
+    }
+
+    // Checks what the database would reject, so one bad row does not fail the statement for the whole batch
+    private static String validate(Product product) {
+        if (product.getProductId() == null || product.getName() == null) {
+            return "productId and name are required";
+        }
+        if (product.getProductId().length() > MAX_PRODUCT_ID_LENGTH) {
+            return "productId is longer than " + MAX_PRODUCT_ID_LENGTH + " characters";
+        }
+        if (product.getName().length() > MAX_NAME_LENGTH) {
+            return "name is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (product.getCategory() != null && product.getCategory().trim().length() > MAX_CATEGORY_LENGTH) {
+            return "category is longer than " + MAX_CATEGORY_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    // Inserts the rows and records their side effects in one transaction
+    private Map<String, Product> write(List<PendingCreate> rows) {
+        return transactionTemplate.execute(status -> {
+            Map<String, Product> created = new HashMap<>();
+            for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+                created.putAll(insert(rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT))));
+            }
+            lifecycleRollupService.recordCreated(created.values());
+            productOutbox.productsCreated(created.values());
+            invalidationBus.publishAll(CacheInvalidationBus.PRODUCT, created.values().stream()
+                    .collect(Collectors.toMap(Product::getId, Product::getUpdatedAt)));
+            // Published inside the transaction so listeners see them after commit
+            created.values().forEach(product -> eventPublisher.publishEvent(new ProductChangedEvent(product)));
+            return created;
+        });
+    }
+
+    private static void completeWritten(List<PendingCreate> rows, Map<String, Product> inserted) {
+        for (PendingCreate pending : rows) {
+            Product product = inserted.get(pending.product.getProductId());
+            pending.complete(product != null
+                    ? new CreateResult(pending.trackingId, CreateStatus.CREATED, product, null)
+                    : CreateResult.duplicate(pending.trackingId, pending.product.getProductId()));
+        }
+    }
+
+    private Map<String, Product> insert(List<PendingCreate> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO products (product_id, name, description, category, category_id, status, created_at, updated_at) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(" ON CONFLICT (product_id) DO NOTHING RETURNING id, product_id");
+
+        Map<String, Product> byProductId = new HashMap<>();
+        rows.forEach(pending -> byProductId.put(pending.product.getProductId(), pending.product));
+        Map<String, Product> created = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            int index = 1;
+            for (PendingCreate pending : rows) {
+                Product product = pending.product;
+                ProductStatus status = product.getStatus() != null ? product.getStatus() : ProductStatus.DESIGN;
+                statement.setString(index++, product.getProductId());
+                statement.setString(index++, product.getName());
+                statement.setString(index++, product.getDescription());
+                statement.setString(index++, product.getCategory());
+                statement.setObject(index++, product.getCategoryId(), Types.INTEGER);
+                statement.setString(index++, status.name());
+                statement.setTimestamp(index++, Timestamp.valueOf(now));
+                statement.setTimestamp(index++, Timestamp.valueOf(now));
+            }
+            return statement;
+        }, resultSet -> {
+            String productId = resultSet.getString("product_id");
+            Product product = byProductId.get(productId);
+            product.setId(resultSet.getLong("id"));
+            product.setStatus(product.getStatus() != null ? product.getStatus() : ProductStatus.DESIGN);
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            created.put(productId, product);
+        });
+        return created;
+    }
+
+    /**
+     * A queued create: its tracking id, the product and a future completed by the committer.
+     */
+    public static final class PendingCreate {
+        private final String trackingId;
+        private final Product product;
+        private final CompletableFuture<CreateResult> future = new CompletableFuture<>();
+
+        PendingCreate(String trackingId, Product product) {
+            this.trackingId = trackingId;
+            this.product = product;
+        }
+
+        public String getTrackingId() {
+            return trackingId;
+        }
+
+        public CompletableFuture<CreateResult> getFuture() {
+            return future;
+        }
+
+        void complete(CreateResult result) {
+            future.complete(result);
+        }
+    }
+
+    public enum CreateStatus {
+        PENDING, CREATED, DUPLICATE, INVALID, FAILED
+    }
+
+    /**
+     * Outcome of one queued create.
+     *
+     * @param trackingId the tracking id returned on submit
+     * @param status     PENDING, CREATED, DUPLICATE, INVALID or FAILED
+     * @param product    the created product (only for CREATED)
+     * @param error      a human readable reason (for DUPLICATE, INVALID and FAILED)
+     */
+    public record CreateResult(String trackingId, CreateStatus status, Product product, String error) {
+
+        static CreateResult duplicate(String trackingId, String productId) {
+            return new CreateResult(trackingId, CreateStatus.DUPLICATE, null, "Product ID already exists: " + productId);
+        }
+
+        static CreateResult failed(String trackingId, String error) {
+            return new CreateResult(trackingId, CreateStatus.FAILED, null, error);
+        }
+    }
+}
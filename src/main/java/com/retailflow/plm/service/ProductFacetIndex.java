@@ -0,0 +1,554 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.model.ProductStatus;
+import com.retailflow.plm.repository.ArchivedProductRepository;
+import com.retailflow.plm.repository.ProductRepository;
+import com.retailflow.plm.service.CategoryDictionary.Category;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory faceted search over products, backed by compressed (Roaring) bitmaps.
+ *
+ * <p>Each product gets a dense document number. There is one bitmap per {@link ProductStatus}
+ * and one per category key of the {@link CategoryDictionary} (so category filters match any
+ * spelling, case-insensitively, and counts are reported under the canonical name), plus sorted timestamp indexes for {@code created_at} and {@code updated_at}.
+ * A query intersects the bitmaps to get the matching documents, and computes facet counts with
+ * {@link RoaringBitmap#andCardinality} so no intermediate result sets are materialized.</p>
+ *
+ * <p>Facet counts follow the usual multi-select convention: the status counts apply every filter
+ * except the status filter, and the category counts every filter except the category filter.</p>
+ */
+@Component
+public class ProductFacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    // Key of a category filter value that is not in the dictionary; has no bitmap
+    private static final int UNKNOWN_CATEGORY = -1;
+
+    // Re-read a little before the watermark to tolerate clock skew between nodes and late commits
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductScanner productScanner;
+
+    @Autowired
+    private ArchivedProductRepository archivedProductRepository;
+
+    @Autowired
+    private InMemoryProductCatalog productCatalog;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Value("${plm.facets.enabled:true}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> docsById = new HashMap<>();
+    private long[] idsByDoc = new long[1024];
+    private int nextDoc; // Document numbers of removed products are not reused
+    private final RoaringBitmap allDocs = new RoaringBitmap();
+    private final Map<ProductStatus, RoaringBitmap> statusBitmaps = new EnumMap<>(ProductStatus.class);
+    private final Map<Integer, RoaringBitmap> categoryBitmaps = new HashMap<>(); // By category key
+    private final Map<Integer, String> categoryNames = new HashMap<>(); // Canonical name per category key
+    private final Map<Integer, ProductStatus> statusByDoc = new HashMap<>();
+    private final Map<Integer, Integer> categoryByDoc = new HashMap<>();
+    private final DateIndex createdIndex = new DateIndex();
+    private final DateIndex updatedIndex = new DateIndex();
+
+    private volatile boolean loaded;
+    private volatile boolean resyncRequested;
+    private LocalDateTime watermark;
+    private LocalDateTime archiveWatermark;
+
+    public ProductFacetIndex() {
+        for (ProductStatus status : ProductStatus.values()) {
+            statusBitmaps.put(status, new RoaringBitmap());
+        }
+    }
+
+    /**
+     * @return true once the initial load has completed and queries can be answered
+     */
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    /**
+     * Builds the index on the first run, then applies rows changed since the last poll.
+     */
+    @Scheduled(fixedDelayString = "${plm.facets.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime pollStart = LocalDateTime.now();
+            if (resyncRequested) {
+                resyncRequested = false;
+                watermark = null; // Re-read everything; updates from other nodes may have been missed
+            }
+            if (watermark == null) {
+                productScanner.forEach(this::apply); // Full load, streamed instead of listed
+            } else {
+                productRepository.findByUpdatedAtGreaterThanEqual(watermark.minus(WATERMARK_OVERLAP)).forEach(this::apply);
+            }
+            // Products archived (possibly by another node) no longer show up in the polled table
+            if (archiveWatermark != null) {
+                archivedProductRepository.findIdsArchivedSince(archiveWatermark.minus(WATERMARK_OVERLAP)).forEach(this::remove);
+            }
+            archiveWatermark = pollStart;
+            if (!loaded) {
+                loaded = true;
+                logger.info("Product facet index built for {} products", docsById.size());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to refresh product facet index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(Product product) {
+        index(product);
+        if (product.getUpdatedAt() != null && (watermark == null || product.getUpdatedAt().isAfter(watermark))) {
+            watermark = product.getUpdatedAt();
+        }
+    }
+
+    /**
+     * Applies a committed local write right away instead of waiting for the next poll.
+     */
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (isReady()) {
+            index(event.getProduct());
+        }
+    }
+
+    /**
+     * Applies writes committed on other nodes, announced through the {@link CacheInvalidationBus}.
+     * Products that no longer exist in the hot table were archived and are dropped.
+     * Runs on the bus's dispatcher thread, not on the thread receiving notifications.
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!isReady()) {
+            return;
+        }
+        if (event.isFullResync()) {
+            resyncRequested = true;
+            return;
+        }
+        List<Long> ids = event.getIds(CacheInvalidationBus.PRODUCT);
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(ids);
+        for (Product product : productRepository.findAllById(ids)) {
+            index(product);
+            missing.remove(product.getId());
+        }
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Drops products archived by this node once the archival transaction has committed.
+     */
+    @TransactionalEventListener
+    public void onProductsArchived(ProductsArchivedEvent event) {
+        if (isReady()) {
+            event.getProductIds().forEach(this::remove);
+        }
+    }
+
+    /**
+     * Runs a faceted query: returns the requested page of matching products together with
+     * the total hit count and per-status / per-category facet counts.
+     *
+     * @param query the filters and page to return
+     * @return the page and facet counts
+     */
+    public FacetResult search(FacetQuery query) {
+        long[] pageIds;
+        int total;
+        Map<String, Integer> statusCounts = new LinkedHashMap<>();
+        Map<String, Integer> categoryCounts = new TreeMap<>();
+        // Unknown categories match nothing; a filter of only unknown ones therefore has no hits
+        Set<Integer> categoryKeys = new HashSet<>();
+        if (query.categories() != null) {
+            query.categories().forEach(name -> categoryKeys.add(
+                    categoryDictionary.find(name).map(Category::id).orElse(UNKNOWN_CATEGORY)));
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap statusMatch = union(query.statuses(), statusBitmaps::get);
+            RoaringBitmap categoryMatch = union(categoryKeys, categoryBitmaps::get);
+            RoaringBitmap dateMatch = RoaringBitmap.and(
+                    createdIndex.range(query.createdFrom(), query.createdTo()),
+                    updatedIndex.range(query.updatedFrom(), query.updatedTo()));
+
+            RoaringBitmap withoutStatus = RoaringBitmap.and(categoryMatch, dateMatch);
+            RoaringBitmap withoutCategory = RoaringBitmap.and(statusMatch, dateMatch);
+            RoaringBitmap result = RoaringBitmap.and(withoutStatus, statusMatch);
+
+            statusBitmaps.forEach((status, bitmap) ->
+                    statusCounts.put(status.name(), RoaringBitmap.andCardinality(bitmap, withoutStatus)));
+            categoryBitmaps.forEach((category, bitmap) -> {
+                int count = RoaringBitmap.andCardinality(bitmap, withoutCategory);
+                if (count > 0) {
+                    categoryCounts.put(categoryNames.get(category), count);
+                }
+            });
+
+            total = result.getCardinality();
+            pageIds = page(result, (long) query.page() * query.size(), query.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new FacetResult(total, query.page(), query.size(), loadProducts(pageIds), statusCounts,
+                new LinkedHashMap<>(categoryCounts));
+    }
+
+    // ORs the bitmaps for the selected values; no selection means "no filter"
+    private <K> RoaringBitmap union(Set<K> selected, Function<K, RoaringBitmap> bitmaps) {
+        if (selected == null || selected.isEmpty()) {
+            return allDocs;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (K key : selected) {
+            RoaringBitmap bitmap = bitmaps.apply(key);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private long[] page(RoaringBitmap result, long offset, int limit) {
+        int cardinality = result.getCardinality();
+        if (offset >= cardinality) {
+            return new long[0];
+        }
+        long[] ids = new long[(int) Math.min(limit, cardinality - offset)];
+        PeekableIntIterator iterator = result.getIntIterator();
+        iterator.advanceIfNeeded(result.select((int) offset));
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idsByDoc[iterator.next()];
+        }
+        return ids;
+    }
+
+    // Resolves the page from the in-memory catalog when it is serving, else with one IN query
+    private List<Product> loadProducts(long[] ids) {
+        List<Product> products = new ArrayList<>(ids.length);
+        if (productCatalog.isServing()) {
+            for (long id : ids) {
+                productCatalog.findById(id).ifPresent(products::add);
+            }
+            return products;
+        }
+        List<Long> idList = Arrays.stream(ids).boxed().toList();
+        Map<Long, Product> byId = productRepository.findAllById(idList).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Long id : idList) {
+            Product product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private void index(Product product) {
+        // Resolved before locking: the first sighting of a spelling written by an older node may query the database
+        Category category = categoryDictionary.resolve(product.getCategory());
+        Integer categoryKey = category == null ? null : category.id();
+        lock.writeLock().lock();
+        try {
+            Integer existing = docsById.get(product.getId());
+            int doc;
+            if (existing != null && isUnchanged(existing, product, categoryKey)) {
+                return; // Re-read by the overlapping poll window; nothing to update
+            }
+            if (existing != null) {
+                doc = existing;
+                statusBitmaps.get(statusByDoc.get(doc)).remove(doc);
+                Integer oldCategory = categoryByDoc.remove(doc);
+                if (oldCategory != null) {
+                    categoryBitmaps.get(oldCategory).remove(doc);
+                }
+            } else {
+                doc = nextDoc++;
+                docsById.put(product.getId(), doc);
+                if (doc >= idsByDoc.length) {
+                    idsByDoc = Arrays.copyOf(idsByDoc, idsByDoc.length * 2);
+                }
+                idsByDoc[doc] = product.getId();
+                allDocs.add(doc);
+            }
+
+            statusBitmaps.get(product.getStatus()).add(doc);
+            statusByDoc.put(doc, product.getStatus());
+            if (category != null) {
+                categoryBitmaps.computeIfAbsent(categoryKey, key -> new RoaringBitmap()).add(doc);
+                categoryNames.put(categoryKey, category.name());
+                categoryByDoc.put(doc, categoryKey);
+            }
+            createdIndex.set(doc, product.getCreatedAt());
+            updatedIndex.set(doc, product.getUpdatedAt());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isUnchanged(int doc, Product product, Integer categoryKey) {
+        return statusByDoc.get(doc) == product.getStatus()
+                && Objects.equals(categoryByDoc.get(doc), categoryKey)
+                && createdIndex.holds(doc, product.getCreatedAt())
+                && updatedIndex.holds(doc, product.getUpdatedAt());
+    }
+
+    // Clears a document from every bitmap; its number stays unused
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsById.remove(id);
+            if (doc == null) {
+                return;
+            }
+            allDocs.remove(doc);
+            statusBitmaps.get(statusByDoc.remove(doc)).remove(doc);
+            Integer category = categoryByDoc.remove(doc);
+            if (category != null) {
+                RoaringBitmap bitmap = categoryBitmaps.get(category);
+                bitmap.remove(doc);
+                if (bitmap.isEmpty()) {
+                    categoryBitmaps.remove(category);
+                    categoryNames.remove(category);
+                }
+            }
+            createdIndex.set(doc, null);
+            updatedIndex.set(doc, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Timestamp index: one value per document plus a sorted view, so range lookups are two
+     * binary searches. The sorted view is brought up to date lazily on the next range lookup
+     * after writes: only the documents whose value changed are re-sorted and merged in.
+     */
+    private static final class DateIndex {
+        private static final long NO_VALUE = Long.MIN_VALUE;
+        // Below this size, ranges are sorted by insertion sort
+        private static final int INSERTION_SORT_THRESHOLD = 16;
+
+        private long[] valuesByDoc = new long[1024];
+        private int docCount;
+        private final RoaringBitmap changedDocs = new RoaringBitmap();
+        private long[] sortedValues = new long[0];
+        private int[] sortedDocs = new int[0];
+
+        // Called under the index write lock
+        void set(int doc, LocalDateTime timestamp) {
+            if (doc >= valuesByDoc.length) {
+                valuesByDoc = Arrays.copyOf(valuesByDoc, Math.max(doc + 1, valuesByDoc.length * 2));
+            }
+            long value = timestamp == null ? NO_VALUE : toMicros(timestamp);
+            if (doc < docCount && valuesByDoc[doc] == value) {
+                return;
+            }
+            valuesByDoc[doc] = value;
+            docCount = Math.max(docCount, doc + 1);
+            changedDocs.add(doc);
+        }
+
+        boolean holds(int doc, LocalDateTime timestamp) {
+            return doc < docCount && valuesByDoc[doc] == (timestamp == null ? NO_VALUE : toMicros(timestamp));
+        }
+
+        /**
+         * @return documents whose value lies in [from, to]; a missing bound is open-ended
+         */
+        RoaringBitmap range(LocalDateTime from, LocalDateTime to) {
+            RoaringBitmap bitmap = new RoaringBitmap();
+            if (from == null && to == null) {
+                bitmap.add(0L, docCount);
+                return bitmap;
+            }
+            sortIfNeeded();
+            int start = from == null ? firstWithValue() : lowerBound(toMicros(from));
+            int end = to == null ? sortedValues.length : lowerBound(toMicros(to) + 1);
+            if (start < end) {
+                int[] docs = Arrays.copyOfRange(sortedDocs, start, end);
+                Arrays.sort(docs);
+                bitmap.addN(docs, 0, docs.length);
+            }
+            return bitmap;
+        }
+
+        // Called under the index read lock by concurrent queries, hence synchronized
+        private synchronized void sortIfNeeded() {
+            if (changedDocs.isEmpty()) {
+                return;
+            }
+            // The changed documents, sorted by their new value
+            int changedCount = changedDocs.getCardinality();
+            long[] changedValues = new long[changedCount];
+            int[] changed = changedDocs.toArray();
+            for (int i = 0; i < changedCount; i++) {
+                changedValues[i] = valuesByDoc[changed[i]];
+            }
+            sort(changedValues, changed, 0, changedCount);
+
+            // Merged with the unchanged part of the previous view, which is still in order
+            long[] values = new long[docCount];
+            int[] docs = new int[docCount];
+            int out = 0;
+            int c = 0;
+            for (int i = 0; i < sortedDocs.length; i++) {
+                if (changedDocs.contains(sortedDocs[i])) {
+                    continue;
+                }
+                while (c < changedCount && changedValues[c] < sortedValues[i]) {
+                    values[out] = changedValues[c];
+                    docs[out++] = changed[c++];
+                }
+                values[out] = sortedValues[i];
+                docs[out++] = sortedDocs[i];
+            }
+            while (c < changedCount) {
+                values[out] = changedValues[c];
+                docs[out++] = changed[c++];
+            }
+            sortedValues = values;
+            sortedDocs = docs;
+            changedDocs.clear();
+        }
+
+        // Sorts values[from, to) ascending and moves docs along with them (primitive arrays, no boxing)
+        private static void sort(long[] values, int[] docs, int from, int to) {
+            while (to - from > INSERTION_SORT_THRESHOLD) {
+                long pivot = values[(from + to) >>> 1];
+                int i = from;
+                int j = to - 1;
+                while (i <= j) {
+                    while (values[i] < pivot) {
+                        i++;
+                    }
+                    while (values[j] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(values, docs, i++, j--);
+                    }
+                }
+                // Recurse into the smaller half and loop on the larger one, so the stack stays shallow
+                if (j + 1 - from < to - i) {
+                    sort(values, docs, from, j + 1);
+                    from = i;
+                } else {
+                    sort(values, docs, i, to);
+                    to = j + 1;
+                }
+            }
+            for (int i = from + 1; i < to; i++) {
+                for (int k = i; k > from && values[k - 1] > values[k]; k--) {
+                    swap(values, docs, k - 1, k);
+                }
+            }
+        }
+
+        private static void swap(long[] values, int[] docs, int a, int b) {
+            long value = values[a];
+            values[a] = values[b];
+            values[b] = value;
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+        }
+
+        private int firstWithValue() {
+            return lowerBound(NO_VALUE + 1);
+        }
+
+        // Index of the first sorted value >= key
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static long toMicros(LocalDateTime timestamp) {
+            return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+        }
+    }
+
+    /**
+     * Filters and paging for a faceted query. Empty or null sets and null bounds mean "no filter".
+     * Categories are matched case-insensitively, ignoring surrounding spaces.
+     */
+    public record FacetQuery(Set<ProductStatus> statuses,
+                             Set<String> categories,
+                             LocalDateTime createdFrom,
+                             LocalDateTime createdTo,
+                             LocalDateTime updatedFrom,
+                             LocalDateTime updatedTo,
+                             int page,
+                             int size) {
+    }
+
+    /**
+     * One page of results with the total hit count and facet counts.
+     */
+    public record FacetResult(int total,
+                              int page,
+                              int size,
+                              List<Product> items,
+                              Map<String, Integer> statusCounts,
+                              Map<String, Integer> categoryCounts) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.model.ProductStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes product events to the {@code outbox_events} table in the transaction of the write that
+ * produced them, so an event exists if and only if the change was committed. {@link OutboxRelay}
+ * delivers them to downstream systems (ERP, e-commerce) afterwards.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY) // Must join the product write's transaction
+public class ProductOutbox {
+
+    public static final String PRODUCT_CREATED = "product.created";
+    public static final String PRODUCT_STATUS_CHANGED = "product.status-changed";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_type, product_id, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${plm.outbox.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Records newly created products.
+     *
+     * @param products the created products (with ids)
+     */
+    public void productsCreated(Collection<Product> products) {
+        if (!enabled || products.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(products.size());
+        for (Product product : products) {
+            rows.add(row(PRODUCT_CREATED, product, null));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Records a lifecycle transition.
+     *
+     * @param product        the product after the change
+     * @param previousStatus the status it left
+     */
+    public void statusChanged(Product product, ProductStatus previousStatus) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, row(PRODUCT_STATUS_CHANGED, product, previousStatus));
+    }
+
+    private Object[] row(String type, Product product, ProductStatus previousStatus) {
+        ObjectNode data = objectMapper.createObjectNode();
+        data.set("product", objectMapper.valueToTree(product));
+        if (previousStatus != null) {
+            data.put("previousStatus", previousStatus.name());
+        }
+        LocalDateTime occurredAt = product.getUpdatedAt() != null ? product.getUpdatedAt() : LocalDateTime.now();
+        try {
+            return new Object[]{type, product.getId(), objectMapper.writeValueAsString(data), Timestamp.valueOf(occurredAt)};
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event for product " + product.getId(), e);
+        }
+    }
+}
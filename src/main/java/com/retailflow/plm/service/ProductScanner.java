@@ -0,0 +1,50 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the whole {@code products} table for the read models (in-memory catalog, facet index,
+ * snapshot) without holding it in memory.
+ *
+ * <p>Rows are fetched from the driver in chunks as they are consumed, and every product is
+ * detached once the caller has processed it, so heap use stays bounded by the fetch size rather
+ * than growing with the table.</p>
+ */
+@Component
+public class ProductScanner {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Passes every product of the hot table to {@code action}, in no particular order.
+     * Runs in its own read-only transaction unless the caller already has one.
+     *
+     * @param action called once per product; the product is detached afterwards
+     * @return the number of products read
+     */
+    @Transactional(readOnly = true)
+    public int forEach(Consumer<Product> action) {
+        int count = 0;
+        try (Stream<Product> products = productRepository.streamAll()) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                action.accept(product);
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -1,32 +1,73 @@
 package com.retailflow.plm.service;
 
+import com.retailflow.plm.model.ArchivedProduct;
 import com.retailflow.plm.model.Product;
 import com.retailflow.plm.model.ProductStatus;
+import com.retailflow.plm.repository.ArchivedProductRepository;
 import com.retailflow.plm.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @Transactional // Ensures methods run within a database transaction
 public class ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+
+    // Maximum number of keys per IN (...) query of a batch lookup
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
     
     @Autowired
     private ProductRepository productRepository; // Spring automatically injects ProductRepository
+
+    @Autowired
+    private ArchivedProductRepository archivedProductRepository; // Cold storage for long-discontinued products, see ProductArchiver
+
+    @Autowired
+    private InMemoryProductCatalog productCatalog; // Optional in-memory read model, see plm.catalog.in-memory.enabled
+
+    @Autowired
+    private LifecycleRollupService lifecycleRollupService; // Status history and lifecycle analytics rollups
+
+    @Autowired
+    private CategoryDictionary categoryDictionary; // Integer keys and canonical spelling of categories
+
+    @Autowired
+    private ProductOutbox productOutbox; // Events for downstream systems, written in the same transaction
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus; // Tells other nodes to refresh their cached copies
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     /**
      * Retrieves all products from the database.
      * @return A list of all Product objects.
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true) // No transaction needed when served from memory
     public List<Product> getAllProducts() {
         logger.info("Fetching all products");
-        return productRepository.findAll();
+        return read("findAll", productCatalog::findAll, productRepository::findAll);
     }
     
     /**
@@ -34,21 +75,78 @@ public class ProductService {
      * @param id The unique ID of the product.
      * @return An Optional containing the Product if found, or empty if not.
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Product> getProductById(Long id) {
         logger.info("Fetching product with ID: {}", id);
-        return productRepository.findById(id);
+        return read("findById", () -> productCatalog.findById(id), () -> productRepository.findById(id));
     }
     
+    /**
+     * Retrieves all products, including those moved to the archive.
+     * @return The active products followed by the archived ones.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getAllProductsIncludingArchived() {
+        logger.info("Fetching all products including archived");
+        List<Product> products = new ArrayList<>(getAllProducts());
+        archivedProductRepository.findAll().forEach(archived -> products.add(archived.toProduct()));
+        return products;
+    }
+
+    /**
+     * Retrieves a single product by its database ID, looking in the archive if it is not active.
+     * @param id The unique ID of the product.
+     * @return An Optional containing the Product if found in either table, or empty if not.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Product> getProductByIdIncludingArchived(Long id) {
+        Optional<Product> product = getProductById(id);
+        if (product.isPresent()) {
+            return product;
+        }
+        logger.info("Product with ID {} not active, checking archive", id);
+        return archivedProductRepository.findById(id).map(ArchivedProduct::toProduct);
+    }
+
     /**
      * Retrieves a single product by its business product ID.
      * @param productId The unique business ID (e.g., PRD-001) of the product.
      * @return An Optional containing the Product if found, or empty if not.
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Product> getProductByProductId(String productId) {
         logger.info("Fetching product with Product ID: {}", productId);
-        return productRepository.findByProductId(productId);
+        return read("findByProductId",
+                () -> productCatalog.findByProductId(productId),
+                () -> productRepository.findByProductId(productId));
     }
     
+    /**
+     * Retrieves many products by their database IDs in one pass.
+     * @param ids The IDs to look up; duplicates are allowed.
+     * @return One entry per requested ID, in request order, marking whether the product was found.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductLookup<Long>> getProductsByIds(List<Long> ids) {
+        logger.info("Fetching {} products by ID", ids.size());
+        return read("findAllById",
+                () -> lookup(ids, chunk -> fromCatalog(chunk, productCatalog::findById), Product::getId),
+                () -> lookup(ids, productRepository::findAllById, Product::getId));
+    }
+
+    /**
+     * Retrieves many products by their business product IDs in one pass.
+     * @param productIds The business IDs (e.g., PRD-001) to look up; duplicates are allowed.
+     * @return One entry per requested product ID, in request order, marking whether the product was found.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductLookup<String>> getProductsByProductIds(List<String> productIds) {
+        logger.info("Fetching {} products by Product ID", productIds.size());
+        return read("findByProductIdIn",
+                () -> lookup(productIds, chunk -> fromCatalog(chunk, productCatalog::findByProductId), Product::getProductId),
+                () -> lookup(productIds, productRepository::findByProductIdIn, Product::getProductId));
+    }
+
     /**
      * Creates a new product in the database.
      * @param product The Product object to save.
@@ -57,7 +155,13 @@ public class ProductService {
     public Product createProduct(Product product) {
         logger.info("Creating new product: {}", product.getProductId());
         // createdAt and updatedAt are set automatically by @PrePersist in Product entity
-        return productRepository.save(product);
+        categoryDictionary.apply(product);
+        Product savedProduct = productRepository.save(product);
+        lifecycleRollupService.recordCreated(List.of(savedProduct));
+        productOutbox.productsCreated(List.of(savedProduct));
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct));
+        invalidationBus.publish(CacheInvalidationBus.PRODUCT, savedProduct.getId(), savedProduct.getUpdatedAt());
+        return savedProduct;
     }
     
     /**
@@ -67,12 +171,21 @@ public class ProductService {
      * @return An Optional containing the updated Product if found, or empty if not.
      */
     public Optional<Product> updateProductStatus(Long id, ProductStatus newStatus) {
-        Optional<Product> productOpt = productRepository.findById(id);
+        // Locked so concurrent transitions of this product run one after the other and each sees
+        // the status the previous one committed
+        Optional<Product> productOpt = productRepository.findByIdForUpdate(id);
         if (productOpt.isPresent()) {
             Product product = productOpt.get();
-            ProductStatus oldStatus = product.getStatus(); // Log old status for audit trail (though not implemented in product_status_history here)
+            ProductStatus oldStatus = product.getStatus(); // Recorded in product_status_history below
             product.setStatus(newStatus);
-            Product savedProduct = productRepository.save(product); // updatedAt is set automatically by @PreUpdate
+            // Flushed now so @PreUpdate sets updatedAt before the transition, outbox event and invalidation read it
+            Product savedProduct = productRepository.saveAndFlush(product);
+            if (oldStatus != newStatus) {
+                lifecycleRollupService.recordTransition(savedProduct, oldStatus);
+                productOutbox.statusChanged(savedProduct, oldStatus);
+            }
+            eventPublisher.publishEvent(new ProductChangedEvent(savedProduct));
+            invalidationBus.publish(CacheInvalidationBus.PRODUCT, savedProduct.getId(), savedProduct.getUpdatedAt());
             logger.info("Updated product {} status from {} to {}", 
                        product.getProductId(), oldStatus, newStatus);
             return Optional.of(savedProduct);
@@ -86,8 +199,92 @@ public class ProductService {
      * @param status The ProductStatus to filter by.
      * @return A list of Product objects matching the given status.
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Product> getProductsByStatus(ProductStatus status) {
         logger.info("Fetching products with status: {}", status);
-        return productRepository.findByStatus(status);
+        return read("findByStatus", () -> productCatalog.findByStatus(status), () -> productRepository.findByStatus(status));
+    }
+
+    /**
+     * Retrieves a list of products in a category.
+     * @param category The category name; matched case-insensitively.
+     * @return A list of Product objects in the category (empty if the category is unknown).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Product> getProductsByCategory(String category) {
+        logger.info("Fetching products in category: {}", category);
+        return categoryDictionary.find(category)
+                .map(entry -> read("findByCategory",
+                        () -> productCatalog.findByCategory(entry.name()),
+                        () -> productRepository.findByCategoryId(entry.id())))
+                .orElse(List.of());
+    }
+
+    /**
+     * Retrieves products by status, including those moved to the archive.
+     * @param status The ProductStatus to filter by.
+     * @return The active products with the status followed by the archived ones.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getProductsByStatusIncludingArchived(ProductStatus status) {
+        List<Product> products = new ArrayList<>(getProductsByStatus(status));
+        logger.info("Fetching archived products with status: {}", status);
+        archivedProductRepository.findByStatus(status).forEach(archived -> products.add(archived.toProduct()));
+        return products;
+    }
+
+    /**
+     * Resolves the distinct keys with one query per {@link #LOOKUP_CHUNK_SIZE} keys and maps
+     * the results back onto the requested order.
+     */
+    private <K> List<ProductLookup<K>> lookup(List<K> keys, Function<List<K>, List<Product>> loader, Function<Product, K> keyOf) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        Map<K, Product> found = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<K> chunk = distinct.subList(from, Math.min(distinct.size(), from + LOOKUP_CHUNK_SIZE));
+            loader.apply(chunk).forEach(product -> found.put(keyOf.apply(product), product));
+        }
+        List<ProductLookup<K>> results = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            Product product = found.get(key);
+            results.add(new ProductLookup<>(key, product != null, product));
+        }
+        return results;
+    }
+
+    private static <K> List<Product> fromCatalog(Collection<K> keys, Function<K, Optional<Product>> finder) {
+        List<Product> products = new ArrayList<>(keys.size());
+        keys.forEach(key -> finder.apply(key).ifPresent(products::add));
+        return products;
+    }
+
+    /**
+     * Answers a read from the in-memory catalog when it is serving, otherwise from the database,
+     * and records the latency per source so both paths can be compared (p99 included).
+     * Reads of synthetic warm-up requests are not recorded.
+     */
+    private <T> T read(String operation, Supplier<T> fromCatalog, Supplier<T> fromRepository) {
+        boolean inMemory = productCatalog.isServing();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result = inMemory ? fromCatalog.get() : fromRepository.get();
+        if (WarmupService.inWarmupRequest()) {
+            return result; // Synthetic warm-up traffic would skew the latency percentiles
+        }
+        sample.stop(Timer.builder("plm.product.read")
+                .description("Latency of product reads by source")
+                .tag("operation", operation)
+                .tag("source", inMemory ? "memory" : "jpa")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+        return result;
+    }
+
+    /**
+     * Result of a batch lookup for one requested key.
+     * @param key The requested ID or product ID.
+     * @param found Whether a product exists for the key.
+     * @param product The product, or {@code null} if not found.
+     */
+    public record ProductLookup<K>(K key, boolean found, Product product) {
     }
 }
@@ -0,0 +1,22 @@
+package com.retailflow.plm.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link ProductArchiver} when products were moved to the archive table,
+ * so in-memory read models can drop them once the transaction commits.
+ */
+public class ProductsArchivedEvent {
+    private final List<Long> productIds;
+
+    public ProductsArchivedEvent(List<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    /**
+     * @return the database IDs of the archived products
+     */
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
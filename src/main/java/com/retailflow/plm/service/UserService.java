@@ -30,6 +30,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder; // Injected PasswordEncoder
 
+    @Autowired
+    private CacheInvalidationBus invalidationBus; // Tells other nodes to refresh their cached copies
+
     public User registerNewUser(User user) {
         logger.info("Attempting to register new user: {}", user.getUsername());
 
@@ -66,6 +69,7 @@ public class UserService {
         user.setRoles(userRoles); // Set the managed roles on the user object
 
         User savedUser = userRepository.save(user);
+        invalidationBus.publish(CacheInvalidationBus.USER, savedUser.getId(), savedUser.getUpdatedAt());
         logger.info("User {} registered successfully with roles: {}", savedUser.getUsername(), savedUser.getRoles());
         return savedUser;
     }
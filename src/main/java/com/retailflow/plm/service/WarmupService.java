@@ -0,0 +1,248 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.repository.ProductRepository;
+import com.retailflow.plm.repository.RoleRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Warms up a freshly started node before it is reported ready for traffic.
+ *
+ * <p>Runs once the application has started: opens the connection pool up to its minimum size,
+ * loads the most recently updated products and the roles (Hibernate metadata, query plans,
+ * read models), then sends synthetic requests to the product endpoints on the node's own port,
+ * so the controller and Jackson paths are JIT-compiled and the response cache is filled. Until it
+ * finishes, the {@code warmup} health indicator keeps the readiness group
+ * ({@code /actuator/health/readiness}) out of service.</p>
+ *
+ * <p>Warm-up never blocks a node for good: failures are logged and the node becomes ready after
+ * them, and it is reported ready once {@code plm.warmup.timeout-ms} has passed even if a step is
+ * still hanging. The duration is published as {@code plm.warmup.duration}.</p>
+ *
+ * <p>The synthetic requests carry a per-process token in {@link #REQUEST_HEADER}; while one is
+ * handled, {@link #inWarmupRequest()} is true, and request metrics, product read latencies and
+ * INFO logs skip it so production numbers are not skewed.</p>
+ */
+@Service
+public class WarmupService {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    public static final String REQUEST_HEADER = "X-PLM-Warmup";
+
+    private static final ThreadLocal<Boolean> WARMUP_REQUEST = new ThreadLocal<>();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${plm.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plm.warmup.connections:0}")
+    private int connections;
+
+    @Value("${plm.warmup.products:200}")
+    private int products;
+
+    @Value("${plm.warmup.request-rounds:5}")
+    private int requestRounds;
+
+    @Value("${plm.warmup.timeout-ms:120000}")
+    private long timeoutMs;
+
+    // Sent with the synthetic requests; unknown to clients, so they cannot hide their requests from metrics
+    private final String requestToken = UUID.randomUUID().toString();
+    private volatile Phase phase = Phase.PENDING;
+    private volatile Duration duration;
+    private volatile long deadline; // System.nanoTime() by which the node is ready regardless; 0 until started
+
+    /**
+     * @return true once warm-up has finished (or is disabled) or {@code plm.warmup.timeout-ms} has
+     *         passed since it started, so the node may receive traffic
+     */
+    public boolean isComplete() {
+        return !enabled || phase == Phase.DONE || (deadline != 0 && System.nanoTime() - deadline >= 0);
+    }
+
+    /**
+     * @param token the value of the {@link #REQUEST_HEADER} header of a request
+     * @return true if the request is one of this node's synthetic warm-up requests
+     */
+    public boolean isWarmupToken(String token) {
+        return requestToken.equals(token);
+    }
+
+    /**
+     * Marks the current thread as handling a warm-up request (or clears the mark).
+     */
+    public static void setWarmupRequest(boolean warmup) {
+        if (warmup) {
+            WARMUP_REQUEST.set(Boolean.TRUE);
+        } else {
+            WARMUP_REQUEST.remove();
+        }
+    }
+
+    /**
+     * @return true while the current thread handles a synthetic warm-up request
+     */
+    public static boolean inWarmupRequest() {
+        return WARMUP_REQUEST.get() != null;
+    }
+
+    /**
+     * @return the current warm-up step
+     */
+    public Phase getPhase() {
+        return enabled ? phase : Phase.DONE;
+    }
+
+    /**
+     * @return how long warm-up took, or null while it is running
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Starts warm-up on its own thread once the web server is listening.
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        int port = event.getApplicationContext() instanceof WebServerApplicationContext web
+                ? web.getWebServer().getPort() : -1;
+        deadline = System.nanoTime() + Duration.ofMillis(timeoutMs).toNanos();
+        Thread thread = new Thread(() -> run(port), "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(int port) {
+        long start = System.nanoTime();
+        try {
+            phase = Phase.CONNECTION_POOL;
+            openConnections();
+            phase = Phase.DATA;
+            roleRepository.findAll();
+            List<Long> ids = productRepository.findAll(PageRequest.of(0, Math.max(products, 1),
+                    Sort.by(Sort.Direction.DESC, "updatedAt"))).map(Product::getId).getContent();
+            phase = Phase.REQUESTS;
+            if (port > 0 && !ids.isEmpty()) {
+                sendRequests(port, ids);
+            }
+        } catch (Exception e) {
+            logger.warn("Warm-up failed in phase {}, continuing without it: {}", phase, e.getMessage(), e);
+        } finally {
+            duration = Duration.ofNanos(System.nanoTime() - start);
+            Timer.builder("plm.warmup.duration")
+                    .description("Time from the start of warm-up to its end")
+                    .register(meterRegistry)
+                    .record(duration);
+            if (System.nanoTime() - deadline >= 0) {
+                logger.warn("Warm-up finished in {} ms, after the node was already reported ready at the {} ms timeout",
+                        duration.toMillis(), timeoutMs);
+            } else {
+                logger.info("Warm-up finished in {} ms, node is ready for traffic", duration.toMillis());
+            }
+            phase = Phase.DONE;
+        }
+    }
+
+    // Borrows the pool's minimum number of connections at once so they are all opened now
+    private void openConnections() throws SQLException {
+        int count = connections;
+        if (count <= 0 && dataSource.isWrapperFor(HikariDataSource.class)) {
+            count = dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+        }
+        List<Connection> opened = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                opened.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+        logger.info("Warm-up opened {} database connections", opened.size());
+    }
+
+    // Product detail and batch lookup requests against this node, as real clients send them
+    private void sendRequests(int port, List<Long> ids) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String base = "http://localhost:" + port + "/api/products";
+        byte[] lookup = objectMapper.writeValueAsBytes(Map.of("ids", ids));
+        int sent = 0;
+        int failed = 0;
+        for (int round = 0; round < requestRounds && System.nanoTime() - deadline < 0; round++) {
+            for (Long id : ids) {
+                if (System.nanoTime() - deadline >= 0) {
+                    logger.warn("Warm-up timed out after {} requests", sent);
+                    break;
+                }
+                failed += send(client, HttpRequest.newBuilder(URI.create(base + "/" + id)).GET());
+                sent++;
+            }
+            failed += send(client, HttpRequest.newBuilder(URI.create(base + "/lookup"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(lookup)));
+            sent++;
+        }
+        logger.info("Warm-up sent {} requests ({} failed)", sent, failed);
+    }
+
+    // Returns 1 for a failed request, 0 otherwise
+    private int send(HttpClient client, HttpRequest.Builder request) throws Exception {
+        HttpResponse<Void> response = client.send(request.header("Accept", "application/json")
+                .header(REQUEST_HEADER, requestToken)
+                .timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() >= 400 ? 1 : 0;
+    }
+
+    /**
+     * Warm-up steps, in order.
+     */
+    public enum Phase {
+        PENDING, CONNECTION_POOL, DATA, REQUESTS, DONE
+    }
+}
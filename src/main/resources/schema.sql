@@ -10,10 +10,44 @@ CREATE TABLE IF NOT EXISTS products (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Product Status History for audit trail (currently unused but schema defined)
+-- Category dictionary: one row per category, matched case-insensitively (see CategoryDictionary)
+CREATE TABLE IF NOT EXISTS categories (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL, -- canonical spelling, the first one seen
+    normalized_name VARCHAR(100) NOT NULL UNIQUE -- trimmed, lower-cased name
+);
+
+-- Integer category key; filled on create and, for older rows, by CategoryMigrator
+ALTER TABLE products ADD COLUMN IF NOT EXISTS category_id INTEGER REFERENCES categories (id);
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category_id);
+-- Rows still waiting for CategoryMigrator; empty once the migration is done
+CREATE INDEX IF NOT EXISTS idx_products_category_unmapped ON products (id) WHERE category_id IS NULL AND category IS NOT NULL;
+
+-- Products DISCONTINUED for longer than plm.archive.discontinued-days, moved here by ProductArchiver
+-- Same columns as products (ids are kept), read only through the includeArchived API paths
+CREATE TABLE IF NOT EXISTS products_archive (
+    id BIGINT PRIMARY KEY,
+    product_id VARCHAR(50) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    category VARCHAR(100),
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_products_archive_archived_at ON products_archive (archived_at);
+CREATE INDEX IF NOT EXISTS idx_products_archive_status ON products_archive (status);
+
+-- Finds archival candidates without scanning the hot table
+CREATE INDEX IF NOT EXISTS idx_products_discontinued_updated ON products (updated_at) WHERE status = 'DISCONTINUED';
+
+-- Product Status History for audit trail (written by LifecycleRollupService on create and status change)
+-- product_id has no foreign key: history is kept when a product is moved to products_archive
 CREATE TABLE IF NOT EXISTS product_status_history (
     id BIGSERIAL PRIMARY KEY,
-    product_id BIGINT REFERENCES products(id),
+    product_id BIGINT,
     previous_status VARCHAR(50),
     new_status VARCHAR(50) NOT NULL,
     changed_by VARCHAR(100),
@@ -21,6 +55,94 @@ CREATE TABLE IF NOT EXISTS product_status_history (
     notes TEXT
 );
 
+ALTER TABLE product_status_history DROP CONSTRAINT IF EXISTS product_status_history_product_id_fkey;
+
+-- Latest status change per product, used to compute how long a product spent in a stage
+CREATE INDEX IF NOT EXISTS idx_product_status_history_product_changed ON product_status_history (product_id, changed_at);
+
+-- Lifecycle rollups, maintained incrementally in the same transaction as each status change
+-- Products entering each status per day and category (categories.id, 0 = no category)
+CREATE TABLE IF NOT EXISTS lifecycle_daily_transitions (
+    day DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    category_id INTEGER NOT NULL DEFAULT 0,
+    transitions BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, status, category_id)
+);
+
+-- Time spent in a stage before leaving it, per day the stage was left and category (0 = none),
+-- in buckets of floor(log2(hours + 1)), so reports can be restricted to a day range
+CREATE TABLE IF NOT EXISTS lifecycle_lead_time_daily (
+    day DATE NOT NULL,
+    category_id INTEGER NOT NULL DEFAULT 0,
+    status VARCHAR(50) NOT NULL, -- the stage that was left
+    bucket INT NOT NULL,
+    transitions BIGINT NOT NULL DEFAULT 0,
+    total_seconds BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, category_id, status, bucket)
+);
+
+-- Responses of requests sent with an Idempotency-Key header, replayed to retries (see IdempotencyService)
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    scope VARCHAR(255) NOT NULL, -- method and path, e.g. 'PUT /api/products/42/status'
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL, -- SHA-256 of the request body; the key cannot be reused for another body
+    claim_token VARCHAR(36) NOT NULL, -- identifies the execution that claimed the key
+    status_code INT, -- NULL while the first request is still running
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (scope, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+-- Transactional outbox: product events written with the change itself, delivered by OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY, -- delivery order and event id for consumer deduplication
+    event_type VARCHAR(50) NOT NULL, -- product.created, product.status-changed
+    product_id BIGINT NOT NULL,
+    payload TEXT NOT NULL, -- JSON: the product after the change and, for transitions, the previous status
+    created_at TIMESTAMP NOT NULL,
+    attempts INT NOT NULL DEFAULT 0, -- failed deliveries so far
+    next_attempt_at TIMESTAMP, -- retry backoff after a failed delivery
+    last_error TEXT,
+    delivered_at TIMESTAMP -- NULL until the sink accepted the event; pruned after plm.outbox.retention-hours
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (id) WHERE delivered_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_delivered ON outbox_events (delivered_at) WHERE delivered_at IS NOT NULL;
+
+-- Single-row lease: only the node holding it relays outbox events, so batches are not delivered twice in parallel
+CREATE TABLE IF NOT EXISTS outbox_relay_lease (
+    id INT PRIMARY KEY,
+    locked_by VARCHAR(100), -- node id of the relaying node
+    locked_until TIMESTAMP -- renewed before every batch; another node takes over once it passes
+);
+
+INSERT INTO outbox_relay_lease (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
+
+-- Durable background jobs, claimed by JobWorker with FOR UPDATE SKIP LOCKED
+CREATE TABLE IF NOT EXISTS jobs (
+    id BIGSERIAL PRIMARY KEY,
+    type VARCHAR(100) NOT NULL,
+    payload TEXT, -- JSON arguments for the job handler
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED', -- QUEUED, RUNNING, SUCCEEDED, FAILED
+    attempts INT NOT NULL DEFAULT 0,
+    max_attempts INT NOT NULL DEFAULT 5,
+    run_after TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, -- earliest (re)start, pushed out by retry backoff
+    locked_by VARCHAR(100), -- claim token of the worker running the job
+    locked_until TIMESTAMP, -- visibility timeout, extended by worker heartbeats
+    last_error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- Claim lookups only touch unfinished jobs
+CREATE INDEX IF NOT EXISTS idx_jobs_claim ON jobs (type, run_after) WHERE status IN ('QUEUED', 'RUNNING');
+CREATE INDEX IF NOT EXISTS idx_jobs_status ON jobs (status);
+
 -- Users table for authentication and authorization
 CREATE TABLE IF NOT EXISTS users (
     id BIGSERIAL PRIMARY KEY,
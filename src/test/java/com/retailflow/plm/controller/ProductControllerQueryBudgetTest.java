@@ -0,0 +1,102 @@
+package com.retailflow.plm.controller;
+
+import com.retailflow.plm.support.QueryCountMatchers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements behind the main read endpoints and login, using the
+ * {@code X-Query-*} headers of the query budget filter.
+ *
+ * <p>Needs the configured Postgres and is skipped unless run with {@code -Dplm.integration=true}
+ * (see {@code scripts/integration-test.sh}). The product and user it creates are deleted afterwards.</p>
+ */
+@EnabledIfSystemProperty(named = "plm.integration", matches = "true")
+@SpringBootTest(properties = {
+        "plm.query-budget.expose-headers=true",
+        "plm.catalog.in-memory.enabled=false", // Reads go to the database
+        "plm.snapshot.enabled=false",
+        "plm.facets.enabled=false",
+        "plm.archive.enabled=false",
+        "plm.jobs.enabled=false",
+        "plm.categories.migration.enabled=false",
+        "plm.warmup.enabled=false",
+        "plm.outbox.enabled=false",
+        "plm.invalidation.enabled=false"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductControllerQueryBudgetTest {
+
+    private static final String SUFFIX = UUID.randomUUID().toString().substring(0, 8);
+    private static final String PRODUCT_ID = "QB-" + SUFFIX;
+    private static final String USERNAME = "qb-" + SUFFIX;
+    private static final String PASSWORD = "query-budget-" + SUFFIX;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long productId;
+
+    @BeforeAll
+    void createProductAndUser() throws Exception {
+        productId = jdbcTemplate.queryForObject("INSERT INTO products (product_id, name, category, status)"
+                + " VALUES (?, 'Query budget test product', NULL, 'DESIGN') RETURNING id", Long.class, PRODUCT_ID);
+        mockMvc.perform(post("/api/auth/register").contentType(APPLICATION_JSON).content(credentials(true)))
+                .andExpect(status().isCreated());
+    }
+
+    @AfterAll
+    void deleteProductAndUser() {
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = (SELECT id FROM users WHERE username = ?)", USERNAME);
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", USERNAME);
+    }
+
+    @Test
+    void listProductsRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(QueryCountMatchers.maxStatements(1))
+                .andExpect(QueryCountMatchers.noRepeatedStatements());
+    }
+
+    @Test
+    void getProductRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andExpect(QueryCountMatchers.maxStatements(1))
+                .andExpect(QueryCountMatchers.maxEntityLoads(1));
+    }
+
+    @Test
+    void loginLoadsUserAndRoles() throws Exception {
+        mockMvc.perform(post("/api/auth/login").contentType(APPLICATION_JSON).content(credentials(false)))
+                .andExpect(status().isOk())
+                .andExpect(QueryCountMatchers.maxStatements(2)) // user + EAGER roles
+                .andExpect(QueryCountMatchers.maxEntityLoads(3))
+                .andExpect(QueryCountMatchers.noRepeatedStatements());
+    }
+
+    private static String credentials(boolean withEmail) {
+        return "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\""
+                + (withEmail ? ",\"email\":\"" + USERNAME + "@example.com\"" : "") + "}";
+    }
+}
@@ -0,0 +1,71 @@
+package com.retailflow.plm.controller;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Error mapping of {@link ProductController#createProduct} when the insert violates a constraint.
+ */
+class ProductControllerTest {
+
+    private ProductService productService;
+    private ProductController controller;
+
+    @BeforeEach
+    void createController() {
+        productService = mock(ProductService.class);
+        controller = new ProductController();
+        ReflectionTestUtils.setField(controller, "productService", productService);
+    }
+
+    @Test
+    void duplicateProductIdIsConflict() {
+        failInsertWith("23505", "products_product_id_key");
+
+        assertThat(controller.createProduct(product(), null).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void otherUniqueViolationIsBadRequest() {
+        failInsertWith("23505", "some_other_key");
+
+        assertThat(controller.createProduct(product(), null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void notNullViolationIsBadRequest() {
+        failInsertWith("23502", null);
+
+        assertThat(controller.createProduct(product(), null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void violationWithoutDriverCauseIsBadRequest() {
+        when(productService.createProduct(any())).thenThrow(new DataIntegrityViolationException("constraint"));
+
+        assertThat(controller.createProduct(product(), null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // Fields of a Postgres ErrorResponse: S = severity, C = SQLSTATE, M = message, n = constraint name
+    private void failInsertWith(String sqlState, String constraint) {
+        String fields = "SERROR\0C" + sqlState + "\0Mconstraint violated\0" + (constraint != null ? "n" + constraint + "\0" : "");
+        PSQLException cause = new PSQLException(new ServerErrorMessage(fields));
+        when(productService.createProduct(any())).thenThrow(new DataIntegrityViolationException("insert failed", cause));
+    }
+
+    private static Product product() {
+        return new Product("P-1", "Product", null, null);
+    }
+}
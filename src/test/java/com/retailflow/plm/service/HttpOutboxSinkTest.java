@@ -0,0 +1,81 @@
+package com.retailflow.plm.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@link HttpOutboxSink} against a local stub server.
+ */
+class HttpOutboxSinkTest {
+
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicReference<String> contentType = new AtomicReference<>();
+    private final AtomicReference<String> body = new AtomicReference<>();
+    private HttpServer server;
+    private HttpOutboxSink sink;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/product-events", exchange -> {
+            contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            body.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        sink = new HttpOutboxSink();
+        ReflectionTestUtils.setField(sink, "url",
+                "http://localhost:" + server.getAddress().getPort() + "/product-events");
+        ReflectionTestUtils.setField(sink, "timeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void postsBatchAsNdjson() throws Exception {
+        sink.deliver(List.of(event(1, "{\"eventId\":1}"), event(2, "{\"eventId\":2}")));
+
+        assertThat(contentType.get()).isEqualTo("application/x-ndjson");
+        assertThat(body.get()).isEqualTo("{\"eventId\":1}\n{\"eventId\":2}\n");
+    }
+
+    @Test
+    void failsBatchOnNon2xxResponse() {
+        status.set(503);
+
+        assertThatThrownBy(() -> sink.deliver(List.of(event(1, "{\"eventId\":1}"))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP 503");
+    }
+
+    @Test
+    void failsBatchWhenServerIsDown() {
+        server.stop(0);
+
+        assertThatThrownBy(() -> sink.deliver(List.of(event(1, "{\"eventId\":1}"))))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static OutboxEvent event(long id, String json) {
+        return new OutboxEvent(id, ProductOutbox.PRODUCT_CREATED, 42, LocalDateTime.now(), json);
+    }
+}
@@ -0,0 +1,238 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.MessageDigest;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link IdempotencyService} against a mocked {@link JdbcTemplate}.
+ */
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/products";
+    private static final String KEY = "key-1";
+    private static final String CLAIM = "INSERT INTO idempotency_keys";
+    private static final String RELEASE = "DELETE FROM idempotency_keys WHERE scope";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger runs = new AtomicInteger();
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyService service;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void createService() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(startsWith(CLAIM), any(Object[].class))).thenReturn(1);
+        service = new IdempotencyService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "maxEntries", 100);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(service, "inFlightTimeoutMs", 60000L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        pool = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void replaysStoredResponseToRetry() {
+        ResponseEntity<String> first = service.execute(SCOPE, KEY, Map.of("productId", "P-1"), String.class, created("P-1"));
+        ResponseEntity<String> retry = service.execute(SCOPE, KEY, Map.of("productId", "P-1"), String.class, created("P-1"));
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo("P-1");
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        verify(jdbcTemplate, times(1)).update(startsWith(CLAIM), any(Object[].class));
+        verify(jdbcTemplate).update(startsWith("UPDATE idempotency_keys SET status_code"),
+                eq(201), eq("\"P-1\""), eq(SCOPE), eq(KEY), anyString());
+    }
+
+    @Test
+    void rejectsKeyReusedForAnotherRequest() {
+        service.execute(SCOPE, KEY, Map.of("productId", "P-1"), String.class, created("P-1"));
+
+        assertThatThrownBy(() -> service.execute(SCOPE, KEY, Map.of("productId", "P-2"), String.class, created("P-2")))
+                .isInstanceOfSatisfying(IdempotencyKeyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void releasesClaimOnServerErrorSoRetryRunsAgain() {
+        ResponseEntity<String> failed = service.execute(SCOPE, KEY, "body", String.class, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        });
+        ResponseEntity<String> retry = service.execute(SCOPE, KEY, "body", String.class, created("P-1"));
+
+        assertThat(failed.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(runs).hasValue(2);
+        verify(jdbcTemplate).update(startsWith(RELEASE), eq(SCOPE), eq(KEY), anyString());
+        verify(jdbcTemplate, times(2)).update(startsWith(CLAIM), any(Object[].class));
+    }
+
+    @Test
+    void releasesClaimWhenRequestThrows() {
+        assertThatThrownBy(() -> service.execute(SCOPE, KEY, "body", String.class, () -> {
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+
+        verify(jdbcTemplate).update(startsWith(RELEASE), eq(SCOPE), eq(KEY), anyString());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE idempotency_keys"), any(Object[].class));
+    }
+
+    @Test
+    void duplicateOnSameNodeWaitsForRunningRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<ResponseEntity<String>> first = pool.submit(() -> service.execute(SCOPE, KEY, "body", String.class, () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(finish);
+            return ResponseEntity.status(HttpStatus.CREATED).body("P-1");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<ResponseEntity<String>> duplicate = pool.submit(() -> service.execute(SCOPE, KEY, "body", String.class, created("P-2")));
+        assertThatThrownBy(() -> duplicate.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        finish.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("P-1");
+        ResponseEntity<String> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getBody()).isEqualTo("P-1");
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(runs).hasValue(1);
+        verify(jdbcTemplate, times(1)).update(startsWith(CLAIM), any(Object[].class));
+    }
+
+    @Test
+    void claimTakesOverExpiredKeysAndAbandonedClaims() {
+        service.execute(SCOPE, KEY, "body", String.class, created("P-1"));
+
+        ArgumentCaptor<Timestamp> createdAt = ArgumentCaptor.forClass(Timestamp.class);
+        ArgumentCaptor<Timestamp> expiresAt = ArgumentCaptor.forClass(Timestamp.class);
+        ArgumentCaptor<Timestamp> abandonedBefore = ArgumentCaptor.forClass(Timestamp.class);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture(), eq(SCOPE), eq(KEY), anyString(), anyString(),
+                createdAt.capture(), expiresAt.capture(), abandonedBefore.capture());
+
+        assertThat(sql.getValue()).contains("WHERE idempotency_keys.expires_at < EXCLUDED.created_at")
+                .contains("OR (idempotency_keys.status_code IS NULL AND idempotency_keys.created_at < ?)");
+        LocalDateTime now = createdAt.getValue().toLocalDateTime();
+        assertThat(expiresAt.getValue().toLocalDateTime()).isEqualTo(now.plusHours(24));
+        assertThat(abandonedBefore.getValue().toLocalDateTime()).isEqualTo(now.minusSeconds(60));
+        assertThat(now).isCloseTo(LocalDateTime.now(), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void replaysResponseStoredByAnotherNode() throws Exception {
+        when(jdbcTemplate.update(startsWith(CLAIM), any(Object[].class))).thenReturn(0);
+        String fingerprint = fingerprint("body");
+        when(jdbcTemplate.query(startsWith("SELECT fingerprint"), any(RowMapper.class), eq(SCOPE), eq(KEY)))
+                .thenAnswer(invocation -> {
+                    ResultSet row = mock(ResultSet.class);
+                    when(row.getString("fingerprint")).thenReturn(fingerprint);
+                    when(row.getInt("status_code")).thenReturn(201);
+                    when(row.getString("response_body")).thenReturn("\"P-1\"");
+                    when(row.getTimestamp("expires_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now().plusHours(1)));
+                    RowMapper<?> mapper = invocation.getArgument(1);
+                    return List.of(mapper.mapRow(row, 0));
+                });
+
+        ResponseEntity<String> replayed = service.execute(SCOPE, KEY, "body", String.class, created("P-2"));
+
+        assertThat(runs).hasValue(0);
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getBody()).isEqualTo("P-1");
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void conflictsWhileAnotherNodeIsStillRunning() {
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 200L);
+        when(jdbcTemplate.update(startsWith(CLAIM), any(Object[].class))).thenReturn(0);
+
+        assertThatThrownBy(() -> service.execute(SCOPE, KEY, "body", String.class, created("P-1")))
+                .isInstanceOfSatisfying(IdempotencyKeyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void rejectsBlankKey() {
+        assertThatThrownBy(() -> service.execute(SCOPE, " ", "body", String.class, created("P-1")))
+                .isInstanceOfSatisfying(IdempotencyKeyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verify(jdbcTemplate, never()).update(startsWith(CLAIM), any(Object[].class));
+    }
+
+    private Supplier<ResponseEntity<String>> created(String body) {
+        return () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(body);
+        };
+    }
+
+    private String fingerprint(Object request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
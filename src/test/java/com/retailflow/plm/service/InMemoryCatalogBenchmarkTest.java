@@ -0,0 +1,142 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.model.ProductStatus;
+import com.retailflow.plm.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Memory per product and read latency of the columnar {@link InMemoryProductCatalog} against
+ * the JPA path ({@link ProductRepository}) over the same rows: bytes per product, and p50/p99 of
+ * findById and findByStatus on both.
+ *
+ * <p>Needs the configured Postgres and is skipped unless run with
+ * {@code mvn test -Dtest=InMemoryCatalogBenchmarkTest -Dplm.benchmark=true}; the number of seeded
+ * products is set with {@code -Dplm.benchmark.products} (default 100000). Rows it inserts use the
+ * {@code BENCH-} product id prefix and are deleted afterwards; other products in the table are
+ * loaded along with them.</p>
+ */
+@EnabledIfSystemProperty(named = "plm.benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "plm.catalog.in-memory.enabled=true",
+        "plm.catalog.in-memory.refresh-ms=3600000", // Refreshed by the test only
+        "plm.snapshot.enabled=false",
+        "plm.facets.enabled=false",
+        "plm.archive.enabled=false",
+        "plm.jobs.enabled=false",
+        "plm.categories.migration.enabled=false",
+        "plm.warmup.enabled=false",
+        "plm.outbox.enabled=false",
+        "plm.invalidation.enabled=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InMemoryCatalogBenchmarkTest {
+
+    private static final String PREFIX = "BENCH-";
+    private static final int PRODUCTS = Integer.getInteger("plm.benchmark.products", 100_000);
+    private static final int FIND_BY_ID_CALLS = 10_000;
+    private static final int FIND_BY_STATUS_ROUNDS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InMemoryProductCatalog catalog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long[] ids;
+
+    @BeforeAll
+    void seed() {
+        String statuses = Arrays.stream(ProductStatus.values()).map(Enum::name).collect(Collectors.joining(",", "{", "}"));
+        jdbcTemplate.update("INSERT INTO products (product_id, name, description, category, status)"
+                        + " SELECT CAST(? AS TEXT) || n, 'Benchmark product ' || n, 'Seeded by InMemoryCatalogBenchmarkTest',"
+                        + " 'Category ' || (n % 50), (CAST(? AS TEXT[]))[n % ? + 1] FROM generate_series(1, ?) AS n",
+                PREFIX, statuses, ProductStatus.values().length, PRODUCTS);
+        ids = jdbcTemplate.queryForList("SELECT id FROM products WHERE product_id LIKE ?", Long.class, PREFIX + "%")
+                .stream().mapToLong(Long::longValue).toArray();
+        catalog.refresh(); // Picks up the seeded rows
+        assertThat(catalog.isServing()).isTrue();
+    }
+
+    @AfterAll
+    void deleteSeededProducts() {
+        jdbcTemplate.update("DELETE FROM products WHERE product_id LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void memoryPerProduct() {
+        int catalogRows = catalog.findAll().size();
+        double catalogBytes = meterRegistry.get("plm.catalog.memory").gauge().value();
+
+        long baseline = usedHeapAfterGc();
+        List<Product> entities = productRepository.findAll();
+        long entityBytes = usedHeapAfterGc() - baseline;
+
+        System.out.printf("%,d products: in-memory catalog ~%,.0f bytes/product (estimate), JPA entities ~%,d bytes/product (retained heap)%n",
+                catalogRows, catalogBytes / catalogRows, entityBytes / entities.size());
+        assertThat(entities).hasSize(catalogRows);
+    }
+
+    @Test
+    void findByIdLatency() {
+        Random random = new Random(42);
+        long[] sample = random.longs(FIND_BY_ID_CALLS, 0, ids.length).map(i -> ids[(int) i]).toArray();
+        report("findById", "catalog", measure(sample.length, i -> assertThat(catalog.findById(sample[i])).isPresent()));
+        report("findById", "jpa", measure(sample.length, i -> assertThat(productRepository.findById(sample[i])).isPresent()));
+    }
+
+    @Test
+    void findByStatusLatency() {
+        ProductStatus[] statuses = ProductStatus.values();
+        int calls = FIND_BY_STATUS_ROUNDS * statuses.length;
+        report("findByStatus", "catalog", measure(calls, i -> catalog.findByStatus(statuses[i % statuses.length])));
+        report("findByStatus", "jpa", measure(calls, i -> productRepository.findByStatus(statuses[i % statuses.length])));
+    }
+
+    // Runs the call once untimed per index for warm-up, then timed; returns sorted durations in nanoseconds
+    private static long[] measure(int calls, IntConsumer call) {
+        for (int i = 0; i < calls; i++) {
+            call.accept(i);
+        }
+        long[] nanos = new long[calls];
+        for (int i = 0; i < calls; i++) {
+            long start = System.nanoTime();
+            call.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String operation, String source, long[] nanos) {
+        System.out.printf("%s on %s: p50 %,d us, p99 %,d us over %,d calls%n", operation, source,
+                nanos[nanos.length / 2] / 1000, nanos[nanos.length * 99 / 100] / 1000, nanos.length);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,100 @@
+package com.retailflow.plm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.model.ProductStatus;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Size and serialization time of the same product list in JSON, CBOR and Smile, encoded by
+ * mappers configured like the ones in {@code WebConfig}. Every format is serialized from scratch
+ * here; in the application JSON product bodies usually come from {@code ProductResponseCache},
+ * so the live {@code plm.payload.serialization} timings cannot be used to compare the formats.
+ *
+ * <p>Needs no database, but is skipped unless run with
+ * {@code mvn test -Dtest=PayloadFormatBenchmarkTest -Dplm.benchmark=true}.</p>
+ */
+@EnabledIfSystemProperty(named = "plm.benchmark", matches = "true")
+class PayloadFormatBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    private static final Map<String, ObjectMapper> MAPPERS = Map.of(
+            "json", mapper().build(),
+            "cbor", mapper().factory(new CBORFactory()).build(),
+            "smile", mapper().factory(new SmileFactory()).build());
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 10_000})
+    void serializeProductList(int size) throws IOException {
+        List<Product> products = products(size);
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = MAPPERS.get(format);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                mapper.writeValueAsBytes(products);
+            }
+            long[] nanos = new long[MEASURED_ROUNDS];
+            byte[] body = null;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                body = mapper.writeValueAsBytes(products);
+                nanos[round] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+
+            System.out.printf("%,d products as %-5s: %,d bytes (%,d gzipped), p50 %,d us, p99 %,d us%n",
+                    size, format, body.length, gzip(body).length,
+                    nanos[MEASURED_ROUNDS / 2] / 1000, nanos[MEASURED_ROUNDS * 99 / 100] / 1000);
+            assertThat(mapper.readValue(body, Product[].class)).hasSize(size);
+        }
+    }
+
+    // Same module and date handling as Spring Boot's auto-configured builder used by WebConfig
+    private static Jackson2ObjectMapperBuilder mapper() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<Product> products(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        ProductStatus[] statuses = ProductStatus.values();
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Product product = new Product("BENCH-" + i, "Benchmark product " + i,
+                    "Seeded by PayloadFormatBenchmarkTest, a description of typical length for catalog item " + i,
+                    "Category " + (i % 50));
+            product.setId((long) i);
+            product.setCategoryId(i % 50 + 1);
+            product.setStatus(statuses[i % statuses.length]);
+            product.setCreatedAt(now.minusDays(i % 365));
+            product.setUpdatedAt(now.minusHours(i % 24));
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+}
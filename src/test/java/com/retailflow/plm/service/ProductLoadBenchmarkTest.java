@@ -0,0 +1,112 @@
+package com.retailflow.plm.service;
+
+import com.retailflow.plm.model.Product;
+import com.retailflow.plm.repository.ProductRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap and latency of a full read-model load (10k / 100k / 1M products): the listed
+ * {@link ProductRepository#findAll()} against the streamed {@link ProductScanner#forEach}.
+ *
+ * <p>Needs the configured Postgres and is skipped unless run with
+ * {@code mvn test -Dtest=ProductLoadBenchmarkTest -Dplm.benchmark=true}. Rows it inserts use the
+ * {@code BENCH-} product id prefix and are deleted afterwards; other products in the table are
+ * read along with them.</p>
+ */
+@EnabledIfSystemProperty(named = "plm.benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "plm.snapshot.enabled=false",
+        "plm.facets.enabled=false",
+        "plm.catalog.in-memory.enabled=false",
+        "plm.archive.enabled=false",
+        "plm.jobs.enabled=false",
+        "plm.categories.migration.enabled=false",
+        "plm.warmup.enabled=false",
+        "plm.outbox.enabled=false",
+        "plm.invalidation.enabled=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductLoadBenchmarkTest {
+
+    private static final String PREFIX = "BENCH-";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductScanner productScanner;
+
+    @AfterAll
+    void deleteSeededProducts() {
+        jdbcTemplate.update("DELETE FROM products WHERE product_id LIKE ?", PREFIX + "%");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void fullLoad(int products) {
+        seed(products);
+
+        // Warm-up pass each, so class loading and JIT do not count against the first variant
+        productScanner.forEach(product -> { });
+        productRepository.findAll();
+
+        Result listed = measure(() -> {
+            List<Product> all = productRepository.findAll();
+            return all.size();
+        });
+        Result streamed = measure(() -> productScanner.forEach(product -> { }));
+
+        System.out.printf("%,d seeded products: findAll %,d rows in %d ms, peak heap +%,d KB;"
+                        + " ProductScanner %,d rows in %d ms, peak heap +%,d KB%n",
+                products, listed.rows(), listed.millis(), listed.peakHeapBytes() / 1024,
+                streamed.rows(), streamed.millis(), streamed.peakHeapBytes() / 1024);
+        assertThat(streamed.rows()).isEqualTo(listed.rows()).isGreaterThanOrEqualTo(products);
+    }
+
+    // Tops the BENCH- rows up to the requested count; sizes run in ascending order
+    private void seed(int products) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE product_id LIKE ?", Integer.class, PREFIX + "%");
+        jdbcTemplate.update("INSERT INTO products (product_id, name, description, category, status)"
+                        + " SELECT CAST(? AS TEXT) || n, 'Benchmark product ' || n, 'Seeded by ProductLoadBenchmarkTest',"
+                        + " 'Category ' || (n % 50), 'DESIGN' FROM generate_series(?, ?) AS n",
+                PREFIX, existing + 1, products);
+    }
+
+    private static Result measure(IntSupplier load) {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        long baseline = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        int rows = load.getAsInt();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        // Sum of per-pool peaks: an upper bound, since the pools need not peak at the same moment
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new Result(rows, millis, Math.max(0, peak - baseline));
+    }
+
+    private record Result(int rows, long millis, long peakHeapBytes) {
+    }
+}
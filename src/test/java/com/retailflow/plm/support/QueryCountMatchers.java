@@ -0,0 +1,70 @@
+package com.retailflow.plm.support;
+
+import com.retailflow.plm.config.QueryBudgetFilter;
+import com.retailflow.plm.config.RequestQueryStats;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test helpers that assert how much database work a request does, based on the counts
+ * reported by {@link QueryBudgetFilter}.
+ *
+ * <p>MockMvc matchers read the {@code X-Query-*} headers, so the test context must enable them
+ * with {@code plm.query-budget.expose-headers=true}; see
+ * {@code com.retailflow.plm.controller.ProductControllerQueryBudgetTest}.</p>
+ *
+ * <p>For code that is not called through MockMvc, {@link #count(Runnable)} collects the same counters.</p>
+ */
+public final class QueryCountMatchers {
+
+    private QueryCountMatchers() {
+    }
+
+    /** Asserts that the request executed at most {@code max} SQL statements. */
+    public static ResultMatcher maxStatements(int max) {
+        return atMost(QueryBudgetFilter.STATEMENTS_HEADER, max);
+    }
+
+    /** Asserts that the request fetched at most {@code max} rows. */
+    public static ResultMatcher maxRows(long max) {
+        return atMost(QueryBudgetFilter.ROWS_HEADER, max);
+    }
+
+    /** Asserts that the request loaded at most {@code max} entities. */
+    public static ResultMatcher maxEntityLoads(int max) {
+        return atMost(QueryBudgetFilter.ENTITY_LOADS_HEADER, max);
+    }
+
+    /** Asserts that no SQL statement ran more than once in the request (no N+1 pattern). */
+    public static ResultMatcher noRepeatedStatements() {
+        return atMost(QueryBudgetFilter.MAX_REPEATS_HEADER, 1);
+    }
+
+    /**
+     * Runs the given code with query counting bound to the current thread.
+     *
+     * @param work the code to measure (e.g. a service call)
+     * @return the statements, rows and entity loads it caused
+     */
+    public static RequestQueryStats count(Runnable work) {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        try {
+            work.run();
+            return stats;
+        } finally {
+            RequestQueryStats.end();
+        }
+    }
+
+    private static ResultMatcher atMost(String header, long max) {
+        return result -> {
+            String value = result.getResponse().getHeader(header);
+            assertNotNull(value, header + " header missing; is plm.query-budget.expose-headers=true?");
+            long actual = Long.parseLong(value);
+            assertTrue(actual <= max, header + " was " + actual + ", expected at most " + max
+                    + " for " + result.getRequest().getMethod() + " " + result.getRequest().getRequestURI());
+        };
+    }
+}